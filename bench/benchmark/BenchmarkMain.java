@@ -0,0 +1,33 @@
+// benchmarks need JMH jars next to compiled game, annotation processor generates harness on javac
+// javac -d compiled -sourcepath src src/user_interface/GameWindow.java src/user_interface/HeadlessRunner.java
+// javac -cp compiled:jmh-core.jar:jmh-generator-annprocess.jar:jopt-simple.jar:commons-math3.jar -d compiled-bench bench/benchmark/*.java
+// java -cp compiled:compiled-bench:jmh-core.jar:jopt-simple.jar:commons-math3.jar benchmark.BenchmarkMain [regex]
+// run from project root, images and sounds are loaded from resources/
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+// runs every benchmark (or ones matching regex) with gc profiler, so each result also has
+// gc.alloc.rate.norm, bytes allocated per operation, which should be 0 for tick, detect and frame
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : "benchmark\\..*")
+				.addProfiler(GCProfiler.class)
+				.forks(1)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(1))
+				.jvmArgsAppend("-Djava.awt.headless=true")
+				.build();
+		new Runner(options).run();
+	}
+
+}
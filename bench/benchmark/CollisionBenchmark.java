@@ -0,0 +1,60 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import manager.CollisionManager;
+import manager.EntityStore;
+import misc.EntityType;
+import misc.Hitbox;
+
+// dino hitbox against store with given number of cactuses spread along the ground
+// detect() should stay flat as count grows, old isCollision looped over every enemy
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+
+	@Param({ "4", "16", "64", "256", "1024" })
+	public int count;
+
+	private EntityStore entities;
+	private CollisionManager collisions;
+	// one in front of cactus and one inside it, so both miss and hit are measured
+	private Hitbox miss = new Hitbox();
+	private Hitbox hit = new Hitbox();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		entities = new EntityStore();
+		entities.setLimit(EntityType.CACTUS, count);
+		for (int i = 0; i < count; i++) {
+			int row = entities.spawn(EntityType.CACTUS, i * 60, 300, 30, 50, 0);
+			entities.setHitbox(row, 2, 2, 26, 46);
+		}
+		collisions = new CollisionManager(entities);
+		int middle = count / 2 * 60;
+		miss.set(middle + 32, 300, 20, 40);
+		hit.set(middle + 5, 300, 20, 40);
+	}
+
+	@Benchmark
+	public int detectMiss() {
+		return collisions.detect(miss);
+	}
+
+	@Benchmark
+	public int detectHit() {
+		return collisions.detect(hit);
+	}
+
+}
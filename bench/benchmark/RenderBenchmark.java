@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import manager.RenderSnapshot;
+import manager.WorldManager;
+import misc.GameState;
+import misc.InputEvent;
+import user_interface.GameScreen;
+
+import static user_interface.GameWindow.SCREEN_HEIGHT;
+import static user_interface.GameWindow.SCREEN_WIDTH;
+
+// whole frame of every screen drawn into offscreen image, what paintComponent costs without window
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderBenchmark {
+
+	@Param({ "GAME_STATE_START", "GAME_STATE_INTRO", "GAME_STATE_IN_PROGRESS", "GAME_STATE_PAUSED", "GAME_STATE_OVER" })
+	public GameState state;
+
+	private GameScreen screen;
+	private RenderSnapshot snapshot = new RenderSnapshot();
+	private BufferedImage frame;
+	private Graphics2D g;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		System.setProperty("java.awt.headless", "true");
+		screen = new GameScreen();
+		screen.setSize(SCREEN_WIDTH, SCREEN_HEIGHT);
+		WorldManager world = screen.getWorld();
+		world.setSeed(1);
+		world.startGame();
+		if (state != GameState.GAME_STATE_START)
+			world.applyInput(InputEvent.RELEASE_UP);
+		if (state == GameState.GAME_STATE_IN_PROGRESS || state == GameState.GAME_STATE_PAUSED) {
+			// few hundred ticks in so there are obstacles, clouds and coins on screen
+			while (world.getGameState() != GameState.GAME_STATE_IN_PROGRESS)
+				world.update();
+			for (int i = 0; i < 600; i++) {
+				world.getShield().activate(world.getTime());
+				world.update();
+			}
+		}
+		if (state == GameState.GAME_STATE_PAUSED)
+			world.applyInput(InputEvent.PAUSE);
+		if (state == GameState.GAME_STATE_OVER)
+			while (world.getGameState() != GameState.GAME_STATE_OVER)
+				world.update();
+		if (world.getGameState() != state)
+			throw new IllegalStateException("wanted " + state + " got " + world.getGameState());
+		screen.publishSnapshot(0.5);
+		snapshot.capture(world, 0.5);
+		frame = new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		g = frame.createGraphics();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		g.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage frame() {
+		screen.paintComponent(g);
+		return frame;
+	}
+
+	@Benchmark
+	public BufferedImage score() {
+		screen.getWorld().getScore().draw(g, snapshot);
+		return frame;
+	}
+
+}
@@ -0,0 +1,42 @@
+package benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import util.Resource;
+
+// image lookups, cached is what every later getImage call costs, cold is decode from disk
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResourceBenchmark {
+
+	private static final String PATH = "resources/cactus-1.png";
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Resource.getImage(PATH);
+	}
+
+	@Benchmark
+	public BufferedImage getImageCached() {
+		return Resource.getImage(PATH);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public BufferedImage getImageCold() {
+		Resource.evictImage(PATH);
+		return Resource.getImage(PATH);
+	}
+
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import manager.WorldManager;
+import misc.GameState;
+import misc.InputEvent;
+import misc.InputState;
+
+// one simulation tick, same thing game loop calls every 1/100s at default -Ddino.tickRate
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WorldBenchmark {
+
+	// play: dino never jumps so it dies and restarts, restart cost is part of the number
+	// shield: shield kept on, every tick is running game with full screen of obstacles
+	@Param({ "play", "shield" })
+	public String mode;
+
+	private WorldManager world;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		world = new WorldManager(new InputState(), true);
+		world.setSeed(1);
+		world.startGame();
+		world.applyInput(InputEvent.RELEASE_UP);
+		// past intro, so measured ticks are game ticks
+		while (world.getGameState() != GameState.GAME_STATE_IN_PROGRESS)
+			world.update();
+	}
+
+	@Benchmark
+	public long tick() {
+		if (mode.equals("shield"))
+			world.getShield().activate(world.getTime());
+		else if (world.getGameState() == GameState.GAME_STATE_OVER)
+			world.applyInput(InputEvent.RELEASE_UP);
+		world.update();
+		return world.getTick();
+	}
+
+}
@@ -1,127 +1,120 @@
 package game_object;
 
-import misc.Animation;
-import user_interface.GameScreen;
+import manager.WorldManager;
 
-import static user_interface.GameScreen.GROUND_Y;
+import static manager.WorldManager.GROUND_Y;
 import static user_interface.GameWindow.SCREEN_WIDTH;
-import static util.Resource.getImage;
+import static util.Atlas.getRegion;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Rectangle;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 import manager.EnemyManager;
-
+import manager.EntityStore;
+import manager.RenderSnapshot;
+import misc.EntityType;
+import misc.RandomStream;
+import util.AtlasRegion;
+import util.FastRandom;
+
+// birds live as BIRD rows in EntityStore, sprite of row is frame of wings
+// all birds flap together so rows are touched only when frame changes
 public class Birds {
 
-	private class Bird extends GameObj {
-
-		private Animation birdFly;
-
-		private Bird(double x, int y, Animation birdFly) {
-			super(x, y);
-			this.birdFly = birdFly;
-		}
-
-		@Override
-		public void update(double speedX) {
-			this.x += speedX;
-			birdFly.updateSprite();
-		}
-
-		@Override
-		public void draw(Graphics g) {
-			g.drawImage(birdFly.getSprite(), (int) x,
-					birdFly.getSprite().getHeight() < WINGS_DOWN_HEIGHT ? y + HITBOX_MODELS_DIFF_IN_Y : y, null);
-		}
-
-		@Override
-		public Rectangle getHitbox() {
-			return new Rectangle((int) x + HITBOX_WINGS_UP[0],
-					birdFly.getSprite().getHeight() < WINGS_DOWN_HEIGHT ? y + HITBOX_WINGS_UP[1] : y + HITBOX_WINGS_DOWN[1],
-					birdFly.getSprite().getWidth() + HITBOX_WINGS_UP[2],
-					birdFly.getSprite().getHeight() < WINGS_DOWN_HEIGHT ? birdFly.getSprite().getHeight() + HITBOX_WINGS_UP[3]
-							: birdFly.getSprite().getHeight() + HITBOX_WINGS_DOWN[3]);
-		}
-
-		public Animation getAnimation() {
-			return birdFly;
-		}
-	}
-
 	private static final int HITBOX_MODELS_DIFF_IN_Y = -12;
 	private static final int[] HITBOX_WINGS_UP = { 20, 4, -40, -20 };
 	private static final int[] HITBOX_WINGS_DOWN = { 20, 4, -40, -28 };
-	private final int WINGS_DOWN_HEIGHT = getImage("resources/bird-fly-1.png").getHeight();
+	private static final int FLAP_TIME = 400;
 
 	private EnemyManager eManager;
-	private GameScreen gameScreen;
-	private List<Bird> birds;
-
-	public Birds(GameScreen gameScreen, EnemyManager eManager) {
+	private WorldManager world;
+	private EntityStore entities;
+	private FastRandom random;
+	private AtlasRegion[] frames = { getRegion("bird-fly-1"), getRegion("bird-fly-2") };
+	private final int WINGS_DOWN_HEIGHT = frames[0].getHeight();
+	private int frame = 0;
+	private long lastFlapTime = 0;
+
+	public Birds(WorldManager world, EnemyManager eManager) {
 		this.eManager = eManager;
-		this.gameScreen = gameScreen;
-		birds = new ArrayList<Bird>();
+		this.world = world;
+		this.entities = world.getEntities();
+		this.random = world.getRandom(RandomStream.ENEMIES);
 	}
 
+	// moving is done by EntityStore, here only wings
 	public void updatePosition() {
-		for (Iterator<Bird> i = birds.iterator(); i.hasNext();) {
-			Bird bird = i.next();
-			bird.update(gameScreen.getSpeedX() + gameScreen.getSpeedX() / 5);
+		if (world.getTime() - lastFlapTime >= FLAP_TIME) {
+			frame = (frame + 1) % frames.length;
+			lastFlapTime = world.getTime();
+			for (int i = 0; i < entities.size(); i++) {
+				if (entities.is(i, EntityType.BIRD))
+					setFrame(i, frame);
+			}
 		}
 	}
 
 	public boolean spaceAvailable() {
-		for (Iterator<Bird> i = birds.iterator(); i.hasNext();) {
-			Bird bird = i.next();
-			if (SCREEN_WIDTH - (bird.x + bird.getAnimation().getSprite().getWidth()) < eManager.getDistanceBetweenEnemies()) {
-				return false;
-			}
-		}
-		return true;
+		return !entities.anyRightOf(EntityType.BIRD, SCREEN_WIDTH - eManager.getDistanceBetweenEnemies());
 	}
 
 	public boolean createBird() {
-		if (Math.random() * 100 < eManager.getBirdsPercentage()) {
-			Animation birdFly = new Animation(400);
-			birdFly.addSprite(getImage("resources/bird-fly-1.png"));
-			birdFly.addSprite(getImage("resources/bird-fly-2.png"));
-			birds.add(new Bird(SCREEN_WIDTH, (int) (Math.random() * (GROUND_Y - birdFly.getSprite().getHeight())), birdFly));
+		if (random.nextDouble() * 100 < eManager.getBirdsPercentage() * world.getTickScale()) {
+			AtlasRegion sprite = frames[frame];
+			int row = entities.spawn(EntityType.BIRD, SCREEN_WIDTH,
+					(int) (random.nextDouble() * (GROUND_Y - sprite.getHeight())), sprite.getWidth(), sprite.getHeight(), frame);
+			if (row == -1)
+				return false;
+			setFrame(row, frame);
 			return true;
 		}
 		return false;
 	}
 
-	public boolean isCollision(Rectangle dinoHitBox) {
-		for (Iterator<Bird> i = birds.iterator(); i.hasNext();) {
-			Bird bird = i.next();
-			if (bird.getHitbox().intersects(dinoHitBox))
-				return true;
-		}
-		return false;
+	// hitbox depends on wings so it is set with sprite
+	private void setFrame(int row, int frame) {
+		AtlasRegion sprite = frames[frame];
+		entities.setSprite(row, frame);
+		if (sprite.getHeight() < WINGS_DOWN_HEIGHT)
+			entities.setHitbox(row, HITBOX_WINGS_UP[0], HITBOX_WINGS_UP[1], sprite.getWidth() + HITBOX_WINGS_UP[2],
+					sprite.getHeight() + HITBOX_WINGS_UP[3]);
+		else
+			entities.setHitbox(row, HITBOX_WINGS_DOWN[0], HITBOX_WINGS_DOWN[1], sprite.getWidth() + HITBOX_WINGS_DOWN[2],
+					sprite.getHeight() + HITBOX_WINGS_DOWN[3]);
+	}
+
+	public void writeState(ByteBuffer buffer) {
+		buffer.putInt(frame);
+		buffer.putLong(lastFlapTime);
+	}
+
+	public void readState(ByteBuffer buffer) {
+		frame = buffer.getInt();
+		lastFlapTime = buffer.getLong();
 	}
 
 	public void clearBirds() {
-		birds.clear();
+		entities.clear(EntityType.BIRD);
 	}
 
-	public void draw(Graphics g) {
-		for (Iterator<Bird> i = birds.iterator(); i.hasNext();) {
-			Bird bird = i.next();
-			bird.draw(g);
+	public void draw(Graphics g, RenderSnapshot snapshot) {
+		EntityStore entities = snapshot.getEntities();
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.is(i, EntityType.BIRD)) {
+				AtlasRegion sprite = frames[entities.getSprite(i)];
+				sprite.draw(g, (int) snapshot.interpolate(entities.getPrevX(i), entities.getX(i)),
+						sprite.getHeight() < WINGS_DOWN_HEIGHT ? entities.getY(i) + HITBOX_MODELS_DIFF_IN_Y : entities.getY(i));
+			}
 		}
 	}
 
-	public void drawHitbox(Graphics g) {
+	public void drawHitbox(Graphics g, EntityStore entities) {
 		g.setColor(Color.RED);
-		for (Iterator<Bird> i = birds.iterator(); i.hasNext();) {
-			Bird bird = i.next();
-			Rectangle birdHitBox = bird.getHitbox();
-			g.drawRect(birdHitBox.x, birdHitBox.y, (int) birdHitBox.getWidth(), (int) birdHitBox.getHeight());
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.is(i, EntityType.BIRD))
+				g.drawRect(entities.getHitboxX(i), entities.getHitboxY(i), entities.getHitboxWidth(i),
+						entities.getHitboxHeight(i));
 		}
 	}
 }
@@ -1,37 +1,25 @@
 package game_object;
 
-import user_interface.GameScreen;
+import manager.WorldManager;
 
-import static user_interface.GameScreen.GROUND_Y;
+import static manager.WorldManager.GROUND_Y;
 import static user_interface.GameWindow.SCREEN_WIDTH;
-import static util.Resource.getImage;
+import static util.Atlas.getRegion;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 
 import manager.EnemyManager;
-
+import manager.EntityStore;
+import manager.RenderSnapshot;
+import misc.EntityType;
+import misc.RandomStream;
+import util.AtlasRegion;
+import util.FastRandom;
+
+// cactuses live as CACTUS rows in EntityStore, this spawns and draws them
 public class Cactuses {
 
-	private class Cactus {
-
-		private BufferedImage cactusImage;
-		private double x;
-		private int y;
-
-		private Cactus(BufferedImage cactusImage, double x, int y) {
-			this.cactusImage = cactusImage;
-			this.x = x;
-			this.y = y;
-		}
-
-	}
-
 	// number to calculate hitbox of cactuses
 	private static final double HITBOX_X = 2.7;
 	private static final int HITBOX_Y = 25;
@@ -41,93 +29,72 @@ public class Cactuses {
 	private static final int MAX_CACTUS_GROUP = 3;
 
 	private EnemyManager eManager;
-	private GameScreen gameScreen;
-	private List<Cactus> cactuses;
+	private WorldManager world;
+	private EntityStore entities;
+	private FastRandom random;
+	// sprite id of row is index here
+	private AtlasRegion[] cactusImages = new AtlasRegion[CACTUSES_AMOUNT];
 
-	public Cactuses(GameScreen gameScreen, EnemyManager eManager) {
+	public Cactuses(WorldManager world, EnemyManager eManager) {
 		this.eManager = eManager;
-		this.gameScreen = gameScreen;
-		cactuses = new ArrayList<Cactus>();
-	}
-
-	public void updatePosition() {
-		for (Iterator<Cactus> i = cactuses.iterator(); i.hasNext();) {
-			Cactus cactus = i.next();
-			cactus.x += Math.round(gameScreen.getSpeedX() * 100d) / 100d;
-			if ((int) cactus.x + cactus.cactusImage.getWidth() < 0) {
-				i.remove();
-			}
-		}
+		this.world = world;
+		this.entities = world.getEntities();
+		this.random = world.getRandom(RandomStream.ENEMIES);
+		for (int i = 0; i < CACTUSES_AMOUNT; i++)
+			cactusImages[i] = getRegion("cactus-" + (i + 1));
 	}
 
 	public boolean spaceAvailable() {
-		for (Iterator<Cactus> i = cactuses.iterator(); i.hasNext();) {
-			Cactus cactus = i.next();
-			if (SCREEN_WIDTH - (cactus.x + cactus.cactusImage.getWidth()) < eManager.getDistanceBetweenEnemies()) {
-				return false;
-			}
-		}
-		return true;
+		return !entities.anyRightOf(EntityType.CACTUS, SCREEN_WIDTH - eManager.getDistanceBetweenEnemies());
 	}
 
 	public boolean createCactuses() {
-		if (Math.random() * 100 < eManager.getCactusesPercentage()) {
-			// Math random to get number of cactuses in a group
-			for (int i = 0, numberOfCactuses = (int) (Math.random() * MAX_CACTUS_GROUP + 1); i < numberOfCactuses; i++) {
-				BufferedImage cactusImage = getImage(
-						"resources/cactus-" + (int) (Math.random() * CACTUSES_AMOUNT + 1) + ".png");
-				int x = SCREEN_WIDTH;
+		if (random.nextDouble() * 100 < eManager.getCactusesPercentage() * world.getTickScale()) {
+			// if it is first cactus of this group x is SCREEN_WIDTH
+			// if it is second or third than it starts where last one ended
+			int x = SCREEN_WIDTH;
+			// random number of cactuses in a group
+			for (int i = 0, numberOfCactuses = random.nextInt(MAX_CACTUS_GROUP) + 1; i < numberOfCactuses; i++) {
+				int sprite = random.nextInt(CACTUSES_AMOUNT);
+				AtlasRegion cactusImage = cactusImages[sprite];
 				int y = GROUND_Y - cactusImage.getHeight();
-				// if it is first cactus of this group x is SCREEN_WIDTH
-				// if it is second or third than i take last cactus and its width to calculate x
-				// position
-				if (i > 0)
-					x = (int) cactuses.get(cactuses.size() - 1).x + cactuses.get(cactuses.size() - 1).cactusImage.getWidth();
-				cactuses.add(new Cactus(cactusImage, x, y));
+				int row = entities.spawn(EntityType.CACTUS, x, y, cactusImage.getWidth(), cactusImage.getHeight(), sprite);
+				// pool is full, rest of group would float in the air
+				if (row == -1)
+					return i > 0;
+				// weird calculation by its working as needed
+				// basically i make it thinner from left and right and shorter to match it
+				// perfectly
+				// enable hitboxes in GameScreen to see it
+				entities.setHitbox(row, (int) (cactusImage.getWidth() / HITBOX_X), cactusImage.getHeight() / HITBOX_Y,
+						cactusImage.getWidth() - (int) (cactusImage.getWidth() / HITBOX_X) * 2,
+						cactusImage.getHeight() - cactusImage.getHeight() / HITBOX_Y);
+				x += cactusImage.getWidth();
 			}
 			return true;
 		}
 		return false;
 	}
 
-	public boolean isCollision(Rectangle dinoHitBox) {
-		for (Iterator<Cactus> i = cactuses.iterator(); i.hasNext();) {
-			Cactus cactus = i.next();
-			Rectangle cactusHitBox = getHitbox(cactus);
-			if (cactusHitBox.intersects(dinoHitBox))
-				return true;
-		}
-		return false;
-	}
-
-	private Rectangle getHitbox(Cactus cactus) {
-		// weird calculation by its working as needed
-		// basically i make it thinner from left and right and shorter to match it
-		// perfectly
-		// enable hitboxes in GameScreen to see it
-		return new Rectangle((int) cactus.x + (int) (cactus.cactusImage.getWidth() / HITBOX_X),
-				cactus.y + cactus.cactusImage.getHeight() / HITBOX_Y,
-				cactus.cactusImage.getWidth() - (int) (cactus.cactusImage.getWidth() / HITBOX_X) * 2,
-				cactus.cactusImage.getHeight() - cactus.cactusImage.getHeight() / HITBOX_Y);
-	}
-
 	public void clearCactuses() {
-		cactuses.clear();
+		entities.clear(EntityType.CACTUS);
 	}
 
-	public void draw(Graphics g) {
-		for (Iterator<Cactus> i = cactuses.iterator(); i.hasNext();) {
-			Cactus cactus = i.next();
-			g.drawImage(cactus.cactusImage, (int) (cactus.x), cactus.y, null);
+	public void draw(Graphics g, RenderSnapshot snapshot) {
+		EntityStore entities = snapshot.getEntities();
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.is(i, EntityType.CACTUS))
+				cactusImages[entities.getSprite(i)].draw(g, (int) snapshot.interpolate(entities.getPrevX(i), entities.getX(i)),
+						entities.getY(i));
 		}
 	}
 
-	public void drawHitbox(Graphics g) {
+	public void drawHitbox(Graphics g, EntityStore entities) {
 		g.setColor(Color.RED);
-		for (Iterator<Cactus> i = cactuses.iterator(); i.hasNext();) {
-			Cactus cactus = i.next();
-			Rectangle cactusHitBox = getHitbox(cactus);
-			g.drawRect(cactusHitBox.x, cactusHitBox.y, (int) cactusHitBox.getWidth(), (int) cactusHitBox.getHeight());
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.is(i, EntityType.CACTUS))
+				g.drawRect(entities.getHitboxX(i), entities.getHitboxY(i), entities.getHitboxWidth(i),
+						entities.getHitboxHeight(i));
 		}
 	}
 
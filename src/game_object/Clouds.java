@@ -1,98 +1,81 @@
 package game_object;
 
-import user_interface.GameScreen;
+import manager.WorldManager;
 
 import static user_interface.GameWindow.SCREEN_HEIGHT;
 import static user_interface.GameWindow.SCREEN_WIDTH;
-import static util.Resource.getImage;
+import static util.Atlas.getRegion;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
 
-public class Clouds {
-
-	private class Cloud {
-
-		private BufferedImage cloudImage;
-		private double x;
-		private int y;
+import manager.EntityStore;
+import manager.RenderSnapshot;
+import misc.EntityType;
+import misc.RandomStream;
+import util.FastRandom;
+import util.AtlasRegion;
+import util.ScaledImageCache;
 
-		private Cloud(BufferedImage cloudImage, double x, int y) {
-			this.cloudImage = cloudImage;
-			this.x = x;
-			this.y = y;
-		}
-
-	}
+// clouds live as CLOUD rows in EntityStore, they move slower than ground and never collide
+public class Clouds {
 
 	// number of max clouds on screen
 	private static final int CLOUDS_AMOUNT = 5;
 	// chance of getting cloud
 	private static final double CLOUD_PERCENTAGE = 0.4;
 
-	private GameScreen gameScreen;
-	private Set<Cloud> clouds;
+	private WorldManager world;
+	private EntityStore entities;
+	private FastRandom random;
+	private AtlasRegion cloudImage;
 	// made clouds 2x bigger
 	private int cloudWidthScaled;
 	private int cloudHeightScaled;
 
-	public Clouds(GameScreen gameScreen) {
-		this.gameScreen = gameScreen;
-		clouds = new HashSet<Cloud>();
-		cloudWidthScaled = getImage("resources/cloud.png").getWidth() * 2;
-		cloudHeightScaled = getImage("resources/cloud.png").getHeight() * 2;
-
+	public Clouds(WorldManager world) {
+		this.world = world;
+		this.entities = world.getEntities();
+		this.random = world.getRandom(RandomStream.CLOUDS);
+		cloudImage = getRegion("cloud");
+		cloudWidthScaled = cloudImage.getWidth() * 2;
+		cloudHeightScaled = cloudImage.getHeight() * 2;
 	}
 
+	// moving and removing is done by EntityStore, here only new clouds
 	public void updatePosition() {
-		isOutOfScreen();
 		createClouds();
 	}
 
-	private void isOutOfScreen() {
-		for (Iterator<Cloud> i = clouds.iterator(); i.hasNext();) {
-			Cloud cloud = (Cloud) i.next();
-			cloud.x += gameScreen.getSpeedX() / 7;
-			if (cloud.x + cloudWidthScaled < 0) {
-				i.remove();
-			}
-		}
-	}
-
 	private void createClouds() {
-		if (clouds.size() < CLOUDS_AMOUNT) {
-			for (Iterator<Cloud> i = clouds.iterator(); i.hasNext();) {
-				Cloud temp = (Cloud) i.next();
-				// checking if enough space for next cloud
-				if (temp.x >= SCREEN_WIDTH - cloudWidthScaled)
-					return;
-			}
-			if (Math.random() * 100 < CLOUD_PERCENTAGE)
-				clouds
-						.add(new Cloud(getImage("resources/cloud.png"), SCREEN_WIDTH, (int) (Math.random() * (SCREEN_HEIGHT / 2))));
+		if (entities.count(EntityType.CLOUD) < CLOUDS_AMOUNT) {
+			// checking if enough space for next cloud
+			if (entities.anyRightOf(EntityType.CLOUD, SCREEN_WIDTH - 1))
+				return;
+			if (random.nextDouble() * 100 < CLOUD_PERCENTAGE * world.getTickScale())
+				entities.spawn(EntityType.CLOUD, SCREEN_WIDTH, (int) (random.nextDouble() * (SCREEN_HEIGHT / 2)), cloudWidthScaled,
+						cloudHeightScaled, 0);
 		}
 	}
 
 	public void clearClouds() {
-		clouds.clear();
+		entities.clear(EntityType.CLOUD);
 	}
 
-	public void draw(Graphics g) {
-		for (Iterator<Cloud> i = clouds.iterator(); i.hasNext();) {
-			Cloud cloud = (Cloud) i.next();
-			g.drawImage(cloud.cloudImage, (int) cloud.x, cloud.y, cloudWidthScaled, cloudHeightScaled, null);
+	public void draw(Graphics g, RenderSnapshot snapshot) {
+		EntityStore entities = snapshot.getEntities();
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.is(i, EntityType.CLOUD))
+				ScaledImageCache.draw(g, cloudImage, (int) snapshot.interpolate(entities.getPrevX(i), entities.getX(i)),
+						entities.getY(i), cloudWidthScaled, cloudHeightScaled, ScaledImageCache.PIXELATED);
 		}
 	}
 
-	public void drawHitbox(Graphics g) {
+	public void drawHitbox(Graphics g, EntityStore entities) {
 		g.setColor(Color.GREEN);
-		for (Iterator<Cloud> i = clouds.iterator(); i.hasNext();) {
-			Cloud cloud = (Cloud) i.next();
-			g.drawRect((int) cloud.x, cloud.y, cloudWidthScaled, cloudHeightScaled);
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.is(i, EntityType.CLOUD))
+				g.drawRect((int) entities.getX(i), entities.getY(i), cloudWidthScaled, cloudHeightScaled);
 		}
 	}
 
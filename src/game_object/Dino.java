@@ -1,19 +1,22 @@
 package game_object;
 
-import static user_interface.GameScreen.GRAVITY;
-import static user_interface.GameScreen.GROUND_Y;
-import static user_interface.GameScreen.SPEED_Y;
-import static util.Resource.getImage;
+import static manager.WorldManager.GRAVITY;
+import static manager.WorldManager.GROUND_Y;
+import static manager.WorldManager.SPEED_Y;
+import static util.Atlas.getRegion;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 
-import manager.SoundManager;
+import manager.RenderSnapshot;
+import manager.WorldManager;
 import misc.Animation;
-import misc.Controls;
 import misc.DinoState;
+import misc.Hitbox;
+import misc.InputState;
+import util.AtlasRegion;
 
 public class Dino {
 
@@ -23,38 +26,44 @@ public class Dino {
 
 	public static final double X = 120;
 
-	Controls controls;
+	WorldManager world;
+	InputState controls;
 
 	private double maxY;
 	private double highJumpMaxY;
 	private double lowJumpMaxY;
 
 	private double y = 0;
+	// y before last update, for interpolated drawing
+	private double prevY = 0;
 	private double speedY = 0;
 
 	private DinoState dinoState;
-	private BufferedImage dinoJump;
-	private BufferedImage dinoDead;
+	// one box moved in place, collision checks call getHitbox every tick
+	private Hitbox hitbox = new Hitbox();
+	private AtlasRegion dinoJump;
+	private AtlasRegion dinoDead;
 	private Animation dinoRun;
 	private Animation dinoDownRun;
-	private SoundManager jumpSound;
+	private int jumpSound;
 
-	public Dino(Controls controls) {
-		this.controls = controls;
+	public Dino(WorldManager world) {
+		this.world = world;
+		this.controls = world.getInput();
 		dinoRun = new Animation(150);
-		dinoRun.addSprite(getImage("resources/dino-run-1.png"));
-		dinoRun.addSprite(getImage("resources/dino-run-2.png"));
+		dinoRun.addSprite(getRegion("dino-run-1").getImage());
+		dinoRun.addSprite(getRegion("dino-run-2").getImage());
 		dinoDownRun = new Animation(150);
-		dinoDownRun.addSprite(getImage("resources/dino-down-run-1.png"));
-		dinoDownRun.addSprite(getImage("resources/dino-down-run-2.png"));
-		dinoJump = getImage("resources/dino-jump.png");
-		dinoDead = getImage("resources/dino-dead.png");
-		jumpSound = new SoundManager("resources/jump.wav");
-		jumpSound.startThread();
+		dinoDownRun.addSprite(getRegion("dino-down-run-1").getImage());
+		dinoDownRun.addSprite(getRegion("dino-down-run-2").getImage());
+		dinoJump = getRegion("dino-jump");
+		dinoDead = getRegion("dino-dead");
+		jumpSound = world.getAudio().load("resources/jump.wav");
 		y = GROUND_Y - dinoJump.getHeight();
 		maxY = y;
 		highJumpMaxY = setJumpMaxY(GRAVITY);
 		lowJumpMaxY = setJumpMaxY(GRAVITY + GRAVITY / 2);
+		prevY = y;
 		dinoState = DinoState.DINO_JUMP;
 	}
 
@@ -84,26 +93,30 @@ public class Dino {
 		return jumpMaxY;
 	}
 
-	public Rectangle getHitbox() {
+	public Hitbox getHitbox() {
 		switch (dinoState) {
 			case DINO_RUN:
 			case DINO_JUMP:
 			case DINO_DEAD:
-				return new Rectangle((int) X + HITBOX_RUN[0], (int) y + HITBOX_RUN[1],
+				hitbox.set((int) X + HITBOX_RUN[0], (int) y + HITBOX_RUN[1],
 						dinoDead.getWidth() + HITBOX_RUN[2], dinoDead.getHeight() + HITBOX_RUN[3]);
+				break;
 			case DINO_DOWN_RUN:
-				return new Rectangle((int) X + HITBOX_DOWN_RUN[0], (int) y + HITBOX_DOWN_RUN[1],
+				hitbox.set((int) X + HITBOX_DOWN_RUN[0], (int) y + HITBOX_DOWN_RUN[1],
 						dinoDownRun.getSprite().getWidth() + HITBOX_DOWN_RUN[2],
 						dinoDownRun.getSprite().getHeight() + HITBOX_DOWN_RUN[3]);
+				break;
 		}
-		return null;
+		return hitbox;
 	}
 
 	public void updatePosition() {
+		double scale = world.getTickScale();
+		prevY = y;
 		if (y < maxY)
 			maxY = y;
-		dinoRun.updateSprite();
-		dinoDownRun.updateSprite();
+		dinoRun.updateSprite(world.getTime());
+		dinoDownRun.updateSprite(world.getTime());
 		switch (dinoState) {
 			case DINO_RUN:
 				y = GROUND_Y - dinoRun.getSprite().getHeight();
@@ -113,21 +126,21 @@ public class Dino {
 				y = GROUND_Y - dinoDownRun.getSprite().getHeight();
 				break;
 			case DINO_JUMP:
-				if (y + speedY >= GROUND_Y - dinoRun.getSprite().getHeight()) {
+				if (y + speedY * scale >= GROUND_Y - dinoRun.getSprite().getHeight()) {
 					speedY = 0;
 					y = GROUND_Y - dinoRun.getSprite().getHeight();
 					dinoState = DinoState.DINO_RUN;
 				} else if (controls.isPressedUp()) {
-					speedY += GRAVITY;
-					y += speedY;
+					speedY += GRAVITY * scale;
+					y += speedY * scale;
 				} else {
 					if (maxY <= lowJumpMaxY - (lowJumpMaxY - highJumpMaxY) / 2)
-						speedY += GRAVITY;
+						speedY += GRAVITY * scale;
 					else
-						speedY += GRAVITY + GRAVITY / 2;
+						speedY += (GRAVITY + GRAVITY / 2) * scale;
 					if (controls.isPressedDown())
-						speedY += GRAVITY;
-					y += speedY;
+						speedY += GRAVITY * scale;
+					y += speedY * scale;
 				}
 				break;
 			default:
@@ -138,14 +151,15 @@ public class Dino {
 
 	public void jump() {
 		if (y == GROUND_Y - dinoRun.getSprite().getHeight()) {
-			jumpSound.play();
+			world.getAudio().play(jumpSound);
 			speedY = SPEED_Y;
-			y += speedY;
+			y += speedY * world.getTickScale();
 		}
 	}
 
 	public void resetDino() {
 		y = GROUND_Y - dinoJump.getHeight();
+		prevY = y;
 		dinoState = DinoState.DINO_RUN;
 	}
 
@@ -155,28 +169,67 @@ public class Dino {
 		dinoState = DinoState.DINO_DEAD;
 	}
 
-	public void draw(Graphics g) {
+	public void writeState(ByteBuffer buffer) {
+		buffer.putDouble(y);
+		buffer.putDouble(prevY);
+		buffer.putDouble(speedY);
+		buffer.putDouble(maxY);
+		buffer.put((byte) dinoState.ordinal());
+		dinoRun.writeState(buffer);
+		dinoDownRun.writeState(buffer);
+	}
+
+	public void readState(ByteBuffer buffer) {
+		y = buffer.getDouble();
+		prevY = buffer.getDouble();
+		speedY = buffer.getDouble();
+		maxY = buffer.getDouble();
+		dinoState = DinoState.values()[buffer.get()];
+		dinoRun.readState(buffer);
+		dinoDownRun.readState(buffer);
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public double getPrevY() {
+		return prevY;
+	}
+
+	// current frame of running animations, jump and dead are single regions drawn by draw()
+	public BufferedImage getSprite() {
 		switch (dinoState) {
 			case DINO_RUN:
-				g.drawImage(dinoRun.getSprite(), (int) X, (int) y, null);
-				break;
+				return dinoRun.getSprite();
+			case DINO_DOWN_RUN:
+				return dinoDownRun.getSprite();
+			default:
+				return null;
+		}
+	}
+
+	public void draw(Graphics g, RenderSnapshot snapshot) {
+		double y = snapshot.interpolate(snapshot.getDinoPrevY(), snapshot.getDinoY());
+		switch (snapshot.getDinoState()) {
+			case DINO_RUN:
 			case DINO_DOWN_RUN:
-				g.drawImage(dinoDownRun.getSprite(), (int) X, (int) y, null);
+				g.drawImage(snapshot.getDinoSprite(), (int) X, (int) y, null);
 				break;
 			case DINO_JUMP:
-				g.drawImage(dinoJump, (int) X, (int) y, null);
+				dinoJump.draw(g, (int) X, (int) y);
 				break;
 			case DINO_DEAD:
-				g.drawImage(dinoDead, (int) X, (int) y, null);
+				dinoDead.draw(g, (int) X, (int) y);
 				break;
 			default:
 				break;
 		}
 	}
 
-	public void drawHitbox(Graphics g) {
+	public void drawHitbox(Graphics g, RenderSnapshot snapshot) {
 		g.setColor(Color.GREEN);
-		g.drawRect(getHitbox().x, getHitbox().y, getHitbox().width, getHitbox().height);
+		snapshot.getDinoHitbox().draw(g);
 	}
 
 }
@@ -1,49 +1,78 @@
 package game_object;
 
-import user_interface.GameScreen;
+import manager.RenderSnapshot;
+import manager.WorldManager;
 
 import static user_interface.GameWindow.SCREEN_HEIGHT;
 import static user_interface.GameWindow.SCREEN_WIDTH;
-import static util.Resource.getImage;
+import static util.Atlas.getRegion;
 
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+import util.AtlasRegion;
+import util.ScaledImageCache;
 
 public class Land {
 	
-	private GameScreen gameScreen;
+	private WorldManager world;
 	private double x = 0;
+	private double prevX = 0;
 	private int y;
 	// here i made land 2x times bigger
 	private int landWidthScaled;
 	private int landHeightScaled;
-	private BufferedImage land;
+	private AtlasRegion land;
 	
-	public Land(GameScreen gameScreen) {
-		this.gameScreen = gameScreen;
-		land = getImage("resources/land.png");
+	public Land(WorldManager world) {
+		this.world = world;
+		land = getRegion("land");
 		y = SCREEN_HEIGHT - land.getHeight() * 2 - 4;
 		landWidthScaled = land.getWidth() * 2;
 		landHeightScaled = land.getHeight() * 2;
 	}
 	
 	public void updatePosition() {
+		prevX = x;
 		// + SPEED_X to 2 decimal points
-		x += Math.round(gameScreen.getSpeedX() * 100d) / 100d;
+		x += Math.round(world.getScrollX() * 100d) / 100d;
+		// if land out of screen start it over, prevX moves along so interpolation doesnt jump back
+		if(landWidthScaled <= (int)Math.abs(x)) {
+			x += landWidthScaled;
+			prevX += landWidthScaled;
+		}
 	}
 	
 	public void resetLand() {
 		x = 0;
+		prevX = 0;
+	}
+	
+	public void writeState(ByteBuffer buffer) {
+		buffer.putDouble(x);
+		buffer.putDouble(prevX);
+	}
+	
+	public void readState(ByteBuffer buffer) {
+		x = buffer.getDouble();
+		prevX = buffer.getDouble();
+	}
+	
+	public double getX() {
+		return x;
+	}
+	
+	public double getPrevX() {
+		return prevX;
 	}
 	
-	public void draw(Graphics g) {
-		g.drawImage(land, (int)x, y, landWidthScaled, landHeightScaled, null);
+	public void draw(Graphics g, RenderSnapshot snapshot) {
+		double x = snapshot.interpolate(snapshot.getLandPrevX(), snapshot.getLandX());
+		ScaledImageCache.draw(g, land, (int)x, y, landWidthScaled, landHeightScaled, ScaledImageCache.PIXELATED);
 		// drawing another land if image is ending
 		if(landWidthScaled - SCREEN_WIDTH <= (int)Math.abs(x))
-			g.drawImage(land, (int)(landWidthScaled + x), y, landWidthScaled, landHeightScaled, null);
-		// if land out of screen set it to 0
-		if(landWidthScaled <= (int)Math.abs(x))
-			x = 0;
+			ScaledImageCache.draw(g, land, (int)(landWidthScaled + x), y, landWidthScaled, landHeightScaled,
+					ScaledImageCache.PIXELATED);
 	}
 	
 }
@@ -1,29 +1,28 @@
 package game_object;
 
-import user_interface.GameScreen;
+import manager.Leaderboard;
+import manager.RenderSnapshot;
+import manager.WorldManager;
 
 import static user_interface.GameWindow.SCREEN_HEIGHT;
 import static user_interface.GameWindow.SCREEN_WIDTH;
-import static util.Resource.getImage;
+import static util.Atlas.getRegion;
 import static util.Resource.isJar;
 
 import java.awt.AlphaComposite;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.ByteBuffer;
 
-import manager.SoundManager;
 import misc.GameState;
+import misc.SyncPolicy;
+import util.AtlasRegion;
+import util.ScoreStore;
+import util.ScoreWriter;
 
 public class Score {
 
@@ -41,133 +40,141 @@ public class Score {
 	private static final int HI_X = SCREEN_WIDTH
 			- ((SCORE_LENGTH * NUMBER_WIDTH + SCREEN_WIDTH / 100) * 2 + NUMBER_WIDTH * 2 + SCREEN_WIDTH / 100);
 	private static final int SCORE_Y = SCREEN_HEIGHT / 25;
-
-	private GameScreen gameScreen;
-	private String scoreFileName;
-	private File scoreFile;
-	private BufferedImage hi;
-	private BufferedImage numbers;
-	private SoundManager scoreUpSound;
+	// getInstance allocates for anything but 1f so made once
+	private static final AlphaComposite HI_SCORE_COMPOSITE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f);
+	private static final AlphaComposite OPAQUE_COMPOSITE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f);
+
+	private WorldManager world;
+	private ScoreStore scoreStore;
+	private ScoreWriter scoreWriter;
+	private Leaderboard leaderboard;
+	// -Ddino.player=name, what scores are saved under
+	private String player = System.getProperty("dino.player", "Dino");
+	private AtlasRegion hi;
+	// single numbers cut from sprite once
+	private BufferedImage[] digitGlyphs = new BufferedImage[10];
+	// digits of what is on screen, recalculated only when value changes
+	private int[] scoreDigits = new int[SCORE_LENGTH];
+	private int[] hiScoreDigits = new int[SCORE_LENGTH];
+	private int shownScore = -1;
+	private int shownHiScore = -1;
+	private int scoreUpSound;
 
 	private double score;
 	private int hiScore;
 
-	public Score(GameScreen gameScreen) {
-		this.gameScreen = gameScreen;
+	public Score(WorldManager world) {
+		this.world = world;
 		score = 0;
-		scoreFileName = "best-scores.txt";
-		scoreFile = new File("resources/" + scoreFileName);
-		readScore();
-		hi = getImage("resources/hi.png");
-		numbers = getImage("resources/numbers.png");
-		scoreUpSound = new SoundManager("resources/scoreup.wav");
-		scoreUpSound.startThread();
+		// headless runs and benchmarks dont touch player's score files at all
+		if (!world.isHeadless() && !GraphicsEnvironment.isHeadless())
+			readScore();
+		hi = getRegion("hi");
+		BufferedImage numbers = getRegion("numbers").getImage();
+		for (int i = 0; i < digitGlyphs.length; i++)
+			digitGlyphs[i] = numbers.getSubimage(i * NUMBER_WIDTH, 0, NUMBER_WIDTH, NUMBER_HEIGHT);
+		scoreUpSound = world.getAudio().load("resources/scoreup.wav");
 	}
 
 	public void scoreUp() {
-		score += SCORE_INC;
+		double previous = score;
+		score += SCORE_INC * world.getTickScale();
 		// play sound every 100 points
-		if ((int) score != 0 && score % 100 <= 0.1)
-			scoreUpSound.play();
+		if ((int) (score / 100) > (int) (previous / 100))
+			world.getAudio().play(scoreUpSound);
 	}
 
-	// getting single number from sprite
-	private BufferedImage cropImage(BufferedImage image, int number) {
-		return image.getSubimage(number * NUMBER_WIDTH, 0, NUMBER_WIDTH, NUMBER_HEIGHT);
+	// digits of value into array, ones first, only last SCORE_LENGTH digits are kept
+	private static void toDigits(int value, int[] digits) {
+		for (int i = 0; i < SCORE_LENGTH; i++) {
+			digits[i] = value % 10;
+			value /= 10;
+		}
 	}
 
-	// method to use StringBuilder
-	private int[] scoreToArray(double scoreType) {
-		int scoreArray[] = new int[SCORE_LENGTH];
-		int tempScore = (int) scoreType;
-
-		// Create a StringBuilder to build the score in reverse
-		StringBuilder scoreBuilder = new StringBuilder();
-		String scoreStr = Integer.toString(tempScore);
-		scoreBuilder.append(scoreStr);
+	// every finished game goes to score file, best one is kept in its header
+	// writing itself happens on writer thread, this only queues it
+	public void writeScore() {
+		if ((int) score <= 0)
+			return;
+		if (leaderboard != null)
+			leaderboard.submit(player, (int) score);
+		if (scoreWriter != null)
+			scoreWriter.submit((int) score, System.currentTimeMillis(), player);
+	}
 
-		// Pad with leading zeros if needed
-		while (scoreBuilder.length() < SCORE_LENGTH) {
-			scoreBuilder.insert(0, "0");
+	private void readScore() {
+		// ClassLoader to know where files are when running from jar
+		String directory = isJar() ? ClassLoader.getSystemClassLoader().getResource("").getPath() : "resources/";
+		scoreStore = new ScoreStore(new File(directory + "best-scores.dat"));
+		try {
+			// first start after text file days, its history goes into new file once
+			File textFile = new File(directory + "best-scores.txt");
+			if (!scoreStore.exists() && textFile.exists())
+				scoreStore.migrate(textFile);
+			scoreStore.open();
+			hiScore = scoreStore.getBest();
+			// -Ddino.scoreBatch=16 -Ddino.scoreSync=NEVER|PER_BATCH|PER_RECORD
+			scoreWriter = new ScoreWriter(scoreStore, 64, Integer.getInteger("dino.scoreBatch", 16), syncPolicy());
+			scoreWriter.start();
+		} catch (IOException e) {
+			e.printStackTrace();
+			scoreStore = null;
+			hiScore = (int) score;
 		}
+	}
 
-		// If the score is longer than SCORE_LENGTH, truncate it
-		if (scoreBuilder.length() > SCORE_LENGTH) {
-			scoreBuilder = new StringBuilder(scoreBuilder.substring(scoreBuilder.length() - SCORE_LENGTH));
+	// typo in property should not stop game from starting
+	private static SyncPolicy syncPolicy() {
+		String name = System.getProperty("dino.scoreSync", SyncPolicy.PER_BATCH.name());
+		try {
+			return SyncPolicy.valueOf(name);
+		} catch (IllegalArgumentException e) {
+			System.out.println("Unknown dino.scoreSync " + name + ", using " + SyncPolicy.PER_BATCH);
+			return SyncPolicy.PER_BATCH;
 		}
+	}
 
-		// Convert back to array of digits
-		for (int i = 0; i < SCORE_LENGTH; i++) {
-			scoreArray[i] = Character.getNumericValue(scoreBuilder.charAt(SCORE_LENGTH - i - 1));
-		}
+	public ScoreStore getScoreStore() {
+		return scoreStore;
+	}
 
-		return scoreArray;
+	public ScoreWriter getScoreWriter() {
+		return scoreWriter;
 	}
 
-	// Method to write the current score to a file if it's higher than the high
-	// score
-	public void writeScore() {
-		// Only write the score if it's higher than the current high score
-		if (score > hiScore) {
-			File file;
-
-			// Determine file path depending on whether the app is running from a JAR
-			if (isJar())
-				// If running from a JAR, get the resource path and append the score file name
-				file = new File(ClassLoader.getSystemClassLoader().getResource("").getPath() + scoreFileName);
-			else
-				// If not running from a JAR (e.g., in an IDE), use the predefined score file
-				file = scoreFile;
-
-			// Try-with-resources to automatically close the BufferedWriter
-			try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, true))) {
-
-				// Write the score, date, and player name to the file in a structured format
-				bw.write(String.format("result=%s,date=%s,player=%s\n",
-						Integer.toString((int) score), // Convert score to integer string
-						new SimpleDateFormat("yyyyMMdd_HHmmss") // Format current date/time
-								.format(Calendar.getInstance().getTime()),
-						"Dino" // Hardcoded player name
-				));
-
-				// Explicitly close the writer (not strictly needed because of
-				// try-with-resources, but harmless)
-				bw.close();
-			} catch (IOException e) {
-				// Print the error stack trace if there's an issue writing to the file
-				e.printStackTrace();
-			}
-		}
+	// finished games are also submitted here, leaderboard starts with best scores from score file
+	public void setLeaderboard(Leaderboard leaderboard) {
+		this.leaderboard = leaderboard;
+		if (leaderboard != null && scoreStore != null)
+			for (int i = 0; i < scoreStore.getTopCount(); i++)
+				leaderboard.submit(scoreStore.getTopPlayer(i), scoreStore.getTopScore(i));
 	}
 
-	private void readScore() {
-		// another ClassLoader to know from where to read best scores
-		if (scoreFile.exists()
-				|| new File(ClassLoader.getSystemClassLoader().getResource("").getPath() + scoreFileName).exists()) {
-			String line = "";
-			File file;
-			// again jar file check
-			if (isJar())
-				file = new File(ClassLoader.getSystemClassLoader().getResource("").getPath() + scoreFileName);
-			else
-				file = scoreFile;
-			if (file.exists()) {
-				try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-					while ((line = br.readLine()) != null) {
-						Matcher m = Pattern.compile("result=(\\d+),date=([\\d_]+),player=(\\w+)").matcher(line);
-						if (m.find()) {
-							if (Integer.parseInt(m.group(1)) > hiScore)
-								hiScore = Integer.parseInt(m.group(1));
-							// System.out.printf("result = %s date = %s player = %s\n", m.group(1),
-							// m.group(2), m.group(3));
-						}
-					}
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			}
-		} else
-			hiScore = (int) score;
+	public Leaderboard getLeaderboard() {
+		return leaderboard;
+	}
+
+	public String getPlayer() {
+		return player;
+	}
+
+	public int getScore() {
+		return (int) score;
+	}
+
+	public int getHiScore() {
+		return hiScore;
+	}
+
+	public void writeState(ByteBuffer buffer) {
+		buffer.putDouble(score);
+		buffer.putInt(hiScore);
+	}
+
+	public void readState(ByteBuffer buffer) {
+		score = buffer.getDouble();
+		hiScore = buffer.getInt();
 	}
 
 	public void scoreReset() {
@@ -176,25 +183,29 @@ public class Score {
 		score = 0;
 	}
 
-	public void draw(Graphics g) {
+	public void draw(Graphics g, RenderSnapshot snapshot) {
 		Graphics2D g2d = (Graphics2D) g;
-		int scoreArray[] = scoreToArray(score);
-		for (int i = 0; i < SCORE_LENGTH; i++) {
-			// this if needed to make blinking animation when score increased by 100
-			if ((!((int) score >= 12 && (int) score % 100 <= 12) || (int) score % 3 == 0)
-					|| gameScreen.getGameState() == GameState.GAME_STATE_OVER)
-				g2d.drawImage(cropImage(numbers, scoreArray[SCORE_LENGTH - i - 1]), CURRENT_SCORE_X + i * NUMBER_WIDTH, SCORE_Y,
-						null);
+		int hiScore = snapshot.getHiScore();
+		if (snapshot.getScore() != shownScore) {
+			shownScore = snapshot.getScore();
+			toDigits(shownScore, scoreDigits);
+		}
+		// this if needed to make blinking animation when score increased by 100
+		if ((!(shownScore >= 12 && shownScore % 100 <= 12) || shownScore % 3 == 0)
+				|| snapshot.getGameState() == GameState.GAME_STATE_OVER) {
+			for (int i = 0; i < SCORE_LENGTH; i++)
+				g2d.drawImage(digitGlyphs[scoreDigits[SCORE_LENGTH - i - 1]], CURRENT_SCORE_X + i * NUMBER_WIDTH, SCORE_Y, null);
 		}
 		if (hiScore > 0) {
-			int hiScoreArray[] = scoreToArray(hiScore);
-			g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
-			for (int i = 0; i < SCORE_LENGTH; i++) {
-				g2d.drawImage(cropImage(numbers, hiScoreArray[SCORE_LENGTH - i - 1]), HI_SCORE_X + i * NUMBER_WIDTH, SCORE_Y,
-						null);
+			if (hiScore != shownHiScore) {
+				shownHiScore = hiScore;
+				toDigits(shownHiScore, hiScoreDigits);
 			}
-			g2d.drawImage(hi, HI_X, SCORE_Y, null);
-			g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
+			g2d.setComposite(HI_SCORE_COMPOSITE);
+			for (int i = 0; i < SCORE_LENGTH; i++)
+				g2d.drawImage(digitGlyphs[hiScoreDigits[SCORE_LENGTH - i - 1]], HI_SCORE_X + i * NUMBER_WIDTH, SCORE_Y, null);
+			hi.draw(g2d, HI_X, SCORE_Y);
+			g2d.setComposite(OPAQUE_COMPOSITE);
 		}
 	}
 
@@ -1,5 +1,7 @@
 package game_object;
 
+import java.nio.ByteBuffer;
+
 public class Shield {
     private int duration;
     private boolean isActive;
@@ -11,13 +13,13 @@ public class Shield {
         this.activationTime = 0;
     }
 
-    public void activate() {
+    public void activate(long time) {
         isActive = true;
-        activationTime = System.currentTimeMillis();
+        activationTime = time;
     }
 
-    public void update() {
-        if (isActive && System.currentTimeMillis() - activationTime > duration * 1000) {
+    public void update(long time) {
+        if (isActive && time - activationTime > duration * 1000) {
             deactivate();
         }
     }
@@ -30,13 +32,23 @@ public class Shield {
         return isActive;
     }
 
-    public int getRemainingTime() {
+    public int getRemainingTime(long time) {
         if (!isActive)
             return 0;
-        long elapsedTime = System.currentTimeMillis() - activationTime;
+        long elapsedTime = time - activationTime;
         return Math.max(0, (int) ((duration * 1000 - elapsedTime) / 1000));
     }
 
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) (isActive ? 1 : 0));
+        buffer.putLong(activationTime);
+    }
+
+    public void readState(ByteBuffer buffer) {
+        isActive = buffer.get() != 0;
+        activationTime = buffer.getLong();
+    }
+
     public void reset() {
         isActive = false;
         activationTime = 0;
@@ -0,0 +1,220 @@
+package manager;
+
+import static util.Resource.getSamples;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+import misc.SoundEvent;
+
+// one thread mixes every sound into one output line
+// sounds are decoded once into PCM arrays and play() only puts sound id into queue
+public class AudioEngine implements Runnable {
+
+	// all wavs in resources are 44.1kHz 16 bit stereo, everything is converted to this on load
+	public static final AudioFormat FORMAT = new AudioFormat(44100, 16, 2, true, false);
+	private static final int CHANNELS = 2;
+	// sounds playing at once, when all are busy oldest one is cut off
+	private static final int VOICES = 8;
+	// frames mixed per write, 256 frames is ~6ms
+	private static final int CHUNK_FRAMES = 256;
+	private static final int QUEUE_SIZE = 64;
+
+	private Thread thread;
+	private SourceDataLine line;
+	private volatile boolean running = false;
+
+	// index is sound id, replaced as whole array so mixer thread always sees complete list
+	private volatile short[][] sounds = new short[0][];
+
+	// bounded queue of sound ids, 0 in slot means empty, id + 1 otherwise
+	private AtomicIntegerArray queue = new AtomicIntegerArray(QUEUE_SIZE);
+	private AtomicLong queueTail = new AtomicLong();
+	private volatile long queueHead = 0;
+
+	// voices, only touched by mixer thread
+	private int[] voiceSound = new int[VOICES];
+	private int[] voicePosition = new int[VOICES];
+	private long[] voiceStarted = new long[VOICES];
+	private long voiceCounter = 0;
+	private int[] mix = new int[CHUNK_FRAMES * CHANNELS];
+	private byte[] out = new byte[CHUNK_FRAMES * CHANNELS * 2];
+
+	private AtomicLong played = new AtomicLong();
+	private AtomicLong dropped = new AtomicLong();
+	private AtomicLong stolen = new AtomicLong();
+
+	public AudioEngine() {
+		for (int i = 0; i < VOICES; i++)
+			voiceSound[i] = -1;
+	}
+
+	// decodes sound and returns its id for play(), call it before sounds are needed
+	public synchronized int load(String path) {
+		short[] samples = getSamples(path, FORMAT);
+		short[][] loaded = new short[sounds.length + 1][];
+		System.arraycopy(sounds, 0, loaded, 0, sounds.length);
+		loaded[sounds.length] = samples == null ? new short[0] : samples;
+		sounds = loaded;
+		return sounds.length - 1;
+	}
+
+	// opens output line and starts mixer thread, without it play() does nothing
+	public void start() {
+		try {
+			line = AudioSystem.getSourceDataLine(FORMAT);
+			// few chunks of buffer, more would only add latency
+			line.open(FORMAT, CHUNK_FRAMES * CHANNELS * 2 * 4);
+			line.start();
+		} catch (LineUnavailableException | IllegalArgumentException e) {
+			System.out.println("No audio output, sounds are disabled: " + e.getMessage());
+			return;
+		}
+		running = true;
+		thread = new Thread(this, "Audio mixer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public void stop() {
+		running = false;
+		if (thread != null)
+			LockSupport.unpark(thread);
+	}
+
+	// never blocks, if queue is full sound is dropped
+	public void play(int soundId) {
+		if (!running)
+			return;
+		boolean queued = enqueue(soundId);
+		SoundEvent event = new SoundEvent();
+		if (event.isEnabled()) {
+			event.soundId = soundId;
+			event.dropped = !queued;
+			event.commit();
+		}
+	}
+
+	private boolean enqueue(int soundId) {
+		while (true) {
+			long tail = queueTail.get();
+			if (tail - queueHead >= QUEUE_SIZE) {
+				dropped.incrementAndGet();
+				return false;
+			}
+			if (queueTail.compareAndSet(tail, tail + 1)) {
+				queue.set((int) (tail % QUEUE_SIZE), soundId + 1);
+				LockSupport.unpark(thread);
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			startQueuedSounds();
+			if (!mixChunk()) {
+				// nothing playing, sleep until play() wakes us
+				if (queueTail.get() == queueHead)
+					LockSupport.park(this);
+				continue;
+			}
+			line.write(out, 0, out.length); // blocks until line has space, this is what paces the thread
+		}
+		line.drain();
+		line.close();
+	}
+
+	private void startQueuedSounds() {
+		long head = queueHead;
+		while (head < queueTail.get()) {
+			int slot = (int) (head % QUEUE_SIZE);
+			int entry = queue.get(slot);
+			// producer reserved slot but did not write it yet
+			if (entry == 0)
+				break;
+			queue.set(slot, 0);
+			head++;
+			startVoice(entry - 1);
+		}
+		queueHead = head;
+	}
+
+	private void startVoice(int soundId) {
+		int voice = -1;
+		int oldest = 0;
+		for (int i = 0; i < VOICES; i++) {
+			if (voiceSound[i] == -1) {
+				voice = i;
+				break;
+			}
+			if (voiceStarted[i] < voiceStarted[oldest])
+				oldest = i;
+		}
+		if (voice == -1) {
+			voice = oldest;
+			stolen.incrementAndGet();
+		}
+		voiceSound[voice] = soundId;
+		voicePosition[voice] = 0;
+		voiceStarted[voice] = voiceCounter++;
+		played.incrementAndGet();
+	}
+
+	// sums active voices into out, false if nothing is playing
+	private boolean mixChunk() {
+		short[][] sounds = this.sounds;
+		boolean active = false;
+		for (int i = 0; i < mix.length; i++)
+			mix[i] = 0;
+		for (int v = 0; v < VOICES; v++) {
+			if (voiceSound[v] == -1)
+				continue;
+			active = true;
+			short[] samples = sounds[voiceSound[v]];
+			int position = voicePosition[v];
+			int count = Math.min(mix.length, samples.length - position);
+			for (int i = 0; i < count; i++)
+				mix[i] += samples[position + i];
+			voicePosition[v] = position + count;
+			if (voicePosition[v] >= samples.length)
+				voiceSound[v] = -1;
+		}
+		if (!active)
+			return false;
+		for (int i = 0; i < mix.length; i++) {
+			int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+			out[i * 2] = (byte) sample;
+			out[i * 2 + 1] = (byte) (sample >> 8);
+		}
+		return true;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	// sounds waiting for mixer thread
+	public int getQueuedCount() {
+		return (int) (queueTail.get() - queueHead);
+	}
+
+	public long getPlayedCount() {
+		return played.get();
+	}
+
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	public long getStolenCount() {
+		return stolen.get();
+	}
+
+}
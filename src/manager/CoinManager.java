@@ -1,82 +1,66 @@
 package manager;
 
-import java.awt.Graphics;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
-
-import game_object.Coin;
-import user_interface.GameScreen;
+import static manager.WorldManager.GROUND_Y;
+import static user_interface.GameWindow.SCREEN_WIDTH;
+import static util.Atlas.getRegion;
 
+import java.awt.Graphics;
+import java.nio.ByteBuffer;
+import misc.EntityType;
+import misc.RandomStream;
+import util.AtlasRegion;
+import util.FastRandom;
+import util.ScaledImageCache;
+
+// coins live as COIN rows in EntityStore, rows are reused by store so there is no separate pool
 public class CoinManager {
-  private GameScreen gameScreen;
-  private List<Coin> coins;
-  private Random random;
+  private WorldManager world;
+  private EntityStore entities;
+  private AtlasRegion coinImage;
+  private FastRandom random;
   private int coinCount;
   private long lastCoinTime;
   private static final int MIN_COIN_INTERVAL = 2000; // Minimum time between coin spawns in milliseconds
   private static final int MAX_ADDITIONAL_INTERVAL = 3000; // Additional random time to add
   private static final int MAX_COINS = 5; // Limit maximum coins on screen
-  private static final int COIN_POOL_SIZE = 10; // Size of the coin pool
+  private static final int COIN_SIZE = 30;
 
-  private List<Coin> coinPool; // Object pool for coins
-
-  public CoinManager(GameScreen gameScreen) {
-    this.gameScreen = gameScreen;
-    coins = new ArrayList<>();
-    coinPool = new ArrayList<>(COIN_POOL_SIZE);
-    random = new Random();
+  public CoinManager(WorldManager world) {
+    this.world = world;
+    this.entities = world.getEntities();
+    coinImage = getRegion("coin"); // Load image once
+    random = world.getRandom(RandomStream.COINS);
     coinCount = 0;
-    lastCoinTime = System.currentTimeMillis();
-
-    // Initialize the coin pool
-    for (int i = 0; i < COIN_POOL_SIZE; i++) {
-      coinPool.add(new Coin(gameScreen, gameScreen.getWidth()));
-    }
+    lastCoinTime = world.getTime();
   }
 
+  // moving and removing off screen coins is done by EntityStore, collecting by WorldManager
   public void update() {
-    // Update coin positions and check for collisions
-    for (Iterator<Coin> iterator = coins.iterator(); iterator.hasNext();) {
-      Coin coin = iterator.next();
-      coin.update();
-
-      // Check collision with dino
-      if (gameScreen.getDino().getHitbox().intersects(coin.getHitbox())) {
-        coinCount++;
-        iterator.remove();
-        // Return the coin to the pool
-        resetCoin(coin);
-      } else if (coin.isOutOfScreen()) {
-        iterator.remove();
-        // Return the coin to the pool
-        resetCoin(coin);
-      }
-    }
-
     // Only spawn new coins if we're under the limit
-    if (coins.size() < MAX_COINS && shouldSpawnCoin()) {
+    if (entities.count(EntityType.COIN) < MAX_COINS && shouldSpawnCoin()) {
       addCoin();
-      lastCoinTime = System.currentTimeMillis();
+      lastCoinTime = world.getTime();
     }
   }
 
   private boolean shouldSpawnCoin() {
-    return System.currentTimeMillis() - lastCoinTime > MIN_COIN_INTERVAL + random.nextInt(MAX_ADDITIONAL_INTERVAL);
+    return world.getTime() - lastCoinTime > MIN_COIN_INTERVAL + random.nextInt(MAX_ADDITIONAL_INTERVAL);
   }
 
   public void addCoin() {
-    if (!coinPool.isEmpty()) {
-      Coin coin = coinPool.remove(coinPool.size() - 1); // Get a coin from the pool
-      coin.reset(); // Reset the coin's state
-      coins.add(coin);
-    }
+    // Start from the right edge of the screen, random height above ground
+    int row = entities.spawn(EntityType.COIN, SCREEN_WIDTH, GROUND_Y - COIN_SIZE - 50 - random.nextInt(100), COIN_SIZE,
+        COIN_SIZE, 0);
+    if (row != -1)
+      entities.setHitbox(row, 0, 0, COIN_SIZE, COIN_SIZE);
   }
 
-  private void resetCoin(Coin coin) {
-    coin.deactivate(); // Deactivate the coin instead of removing it
-    coinPool.add(coin); // Return the coin to the pool
+  // dino touched coin in given store row
+  public void collect(int row) {
+    if (entities.is(row, EntityType.COIN)) {
+      coinCount++;
+      entities.kill(row);
+    }
   }
 
   public int getCoinCount() {
@@ -84,31 +68,41 @@ public class CoinManager {
   }
 
   public int getActiveCoins() {
-    return coins.size();
+    return entities.count(EntityType.COIN);
   }
 
-  public void draw(Graphics g) {
-    for (Coin coin : coins) {
-      if (coin.isActive()) { // Check if the coin is active before drawing
-        coin.draw(g);
+  public void draw(Graphics g, RenderSnapshot snapshot) {
+    EntityStore entities = snapshot.getEntities();
+    for (int i = 0; i < entities.size(); i++) {
+      if (entities.is(i, EntityType.COIN)) {
+        ScaledImageCache.draw(g, coinImage, (int) snapshot.interpolate(entities.getPrevX(i), entities.getX(i)),
+            entities.getY(i), COIN_SIZE, COIN_SIZE, ScaledImageCache.SMOOTH);
       }
     }
   }
 
-  public void drawHitbox(Graphics g) {
-    for (Coin coin : coins) {
-      coin.drawHitbox(g);
+  public void drawHitbox(Graphics g, EntityStore entities) {
+    for (int i = 0; i < entities.size(); i++) {
+      if (entities.is(i, EntityType.COIN)) {
+        g.drawRect(entities.getHitboxX(i), entities.getHitboxY(i), entities.getHitboxWidth(i),
+            entities.getHitboxHeight(i));
+      }
     }
   }
 
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(coinCount);
+    buffer.putLong(lastCoinTime);
+  }
+
+  public void readState(ByteBuffer buffer) {
+    coinCount = buffer.getInt();
+    lastCoinTime = buffer.getLong();
+  }
+
   public void resetCoins() {
-    coins.clear(); // Clear active coins
+    entities.clear(EntityType.COIN); // Clear active coins
     coinCount = 0; // Reset coin count
-    lastCoinTime = System.currentTimeMillis(); // Reset last coin spawn time
-    coinPool.clear(); // Clear the pool if needed
-    // Reinitialize the pool
-    for (int i = 0; i < COIN_POOL_SIZE; i++) {
-      coinPool.add(new Coin(gameScreen, gameScreen.getWidth()));
-    }
+    lastCoinTime = world.getTime(); // Reset last coin spawn time
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package manager;
+
+import java.util.Arrays;
+
+import misc.ContactType;
+import misc.Hitbox;
+
+// finds what a box touches by looking only at entity rows around it
+// EntityStore keeps rows sorted by x, so this is binary search and short walk no matter how many rows there are
+public class CollisionManager {
+
+	private static final int INITIAL_CONTACTS = 8;
+
+	private EntityStore entities;
+
+	// result of last detect(), row indexes are valid until store is sorted or culled again
+	private ContactType[] contactTypes = new ContactType[INITIAL_CONTACTS];
+	private int[] contactRows = new int[INITIAL_CONTACTS];
+	private int contactCount = 0;
+
+	private long checks = 0;
+	private long tests = 0;
+
+	public CollisionManager(EntityStore entities) {
+		this.entities = entities;
+	}
+
+	// finds every row touching target, contacts are read with getContactType/getContactRow
+	public int detect(Hitbox target) {
+		contactCount = 0;
+		checks++;
+		int right = target.x + target.width;
+		// row starting more than widest row left of target cant reach it
+		for (int i = entities.firstFrom(target.x - entities.getMaxWidth()); i < entities.size()
+				&& entities.getX(i) < right; i++) {
+			tests++;
+			ContactType contact = entities.getType(i).getContact();
+			if (contact == null || !entities.isAlive(i))
+				continue;
+			if (Hitbox.intersects(target.x, target.y, target.width, target.height, entities.getHitboxX(i),
+					entities.getHitboxY(i), entities.getHitboxWidth(i), entities.getHitboxHeight(i)))
+				addContact(contact, i);
+		}
+		return contactCount;
+	}
+
+	private void addContact(ContactType type, int row) {
+		if (contactCount == contactTypes.length) {
+			contactTypes = Arrays.copyOf(contactTypes, contactCount * 2);
+			contactRows = Arrays.copyOf(contactRows, contactCount * 2);
+		}
+		contactTypes[contactCount] = type;
+		contactRows[contactCount] = row;
+		contactCount++;
+	}
+
+	public int getContactCount() {
+		return contactCount;
+	}
+
+	public ContactType getContactType(int index) {
+		return contactTypes[index];
+	}
+
+	public int getContactRow(int index) {
+		return contactRows[index];
+	}
+
+	// rows tested per detect() on average, should stay small no matter how many rows there are
+	public double getAverageTests() {
+		return checks == 0 ? 0 : (double) tests / checks;
+	}
+
+}
@@ -1,23 +1,22 @@
 package manager;
 
-import misc.Controls;
-import user_interface.GameScreen;
+import misc.InputState;
 
 public class ControlsManager {
 
-	Controls controls;
-	GameScreen gameScreen;
+	InputState controls;
+	WorldManager world;
 	
-	public ControlsManager(Controls controls, GameScreen gameScreen) {
+	public ControlsManager(InputState controls, WorldManager world) {
 		this.controls = controls;
-		this.gameScreen = gameScreen;
+		this.world = world;
 	}
 	
 	public void update() {
 		if(controls.isPressedUp())
-			gameScreen.pressUpAction();
+			world.pressUpAction();
 		if(controls.isPressedDown())
-			gameScreen.pressDownAction();
+			world.pressDownAction();
 	}
 	
 }
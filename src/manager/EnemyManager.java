@@ -3,10 +3,12 @@ package manager;
 import game_object.Birds;
 import game_object.Cactuses;
 import misc.EnemyType;
-import user_interface.GameScreen;
+import misc.RandomStream;
+import misc.SpawnEvent;
+import util.FastRandom;
 
 import java.awt.Graphics;
-import java.awt.Rectangle;
+import java.nio.ByteBuffer;
 
 public class EnemyManager {
 	
@@ -19,12 +21,18 @@ public class EnemyManager {
 	private double cactusesPercentage = 2;
 	private double birdsPercentage = 1;
 	
+	private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+	
+	private WorldManager world;
+	private FastRandom random;
 	private Cactuses cactuses;
 	private Birds birds;
 	
-	public EnemyManager(GameScreen gameScreen) {
-		cactuses = new Cactuses(gameScreen, this);
-		birds = new Birds(gameScreen, this);
+	public EnemyManager(WorldManager world) {
+		this.world = world;
+		this.random = world.getRandom(RandomStream.ENEMIES);
+		cactuses = new Cactuses(world, this);
+		birds = new Birds(world, this);
 	}
 	
 	public double getDistanceBetweenEnemies() {
@@ -40,32 +48,55 @@ public class EnemyManager {
 	}
 
 	public void updatePosition() {
-		cactusesPercentage += PERCENTAGE_INC;
-		birdsPercentage += PERCENTAGE_INC;
+		cactusesPercentage += PERCENTAGE_INC * world.getTickScale();
+		birdsPercentage += PERCENTAGE_INC * world.getTickScale();
 		if(distanceBetweenEnemies > MINIMUM_DISTANCE)
-			distanceBetweenEnemies += DISTANCE_DEC;
-		cactuses.updatePosition();
+			distanceBetweenEnemies += DISTANCE_DEC * world.getTickScale();
 		birds.updatePosition();
 		if(cactuses.spaceAvailable() && birds.spaceAvailable()) {
 			// "randomly" choosing new enemy type 
-			switch (EnemyType.values()[(int)(Math.random() * EnemyType.values().length)]) {
+			switch (ENEMY_TYPES[random.nextInt(ENEMY_TYPES.length)]) {
 			case CACTUS:
-				if(cactuses.createCactuses())
+				if(cactuses.createCactuses()) {
+					spawned(EnemyType.CACTUS);
 					break;
+				}
 			case BIRD:
-				if(birds.createBird())
+				if(birds.createBird()) {
+					spawned(EnemyType.BIRD);
 					break;
+				}
 			default:
-				cactuses.createCactuses();
+				if(cactuses.createCactuses())
+					spawned(EnemyType.CACTUS);
 				break;
 			}
 		}
 	}
 	
-	public boolean isCollision(Rectangle hitBox) {
-		if(cactuses.isCollision(hitBox) || birds.isCollision(hitBox))
-			return true;
-		return false;
+	private void spawned(EnemyType type) {
+		SpawnEvent event = new SpawnEvent();
+		if(event.isEnabled()) {
+			event.enemyType = type.name();
+			event.tick = world.getTick();
+			event.distance = distanceBetweenEnemies;
+			event.commit();
+		}
+	}
+	
+	// cactuses themselves are rows in EntityStore, here only difficulty and bird wings
+	public void writeState(ByteBuffer buffer) {
+		buffer.putDouble(distanceBetweenEnemies);
+		buffer.putDouble(cactusesPercentage);
+		buffer.putDouble(birdsPercentage);
+		birds.writeState(buffer);
+	}
+	
+	public void readState(ByteBuffer buffer) {
+		distanceBetweenEnemies = buffer.getDouble();
+		cactusesPercentage = buffer.getDouble();
+		birdsPercentage = buffer.getDouble();
+		birds.readState(buffer);
 	}
 	
 	public void clearEnemy() {
@@ -73,14 +104,14 @@ public class EnemyManager {
 		birds.clearBirds();
 	}
 	
-	public void draw(Graphics g) {
-		cactuses.draw(g);
-		birds.draw(g);
+	public void draw(Graphics g, RenderSnapshot snapshot) {
+		cactuses.draw(g, snapshot);
+		birds.draw(g, snapshot);
 	}
 	
-	public void drawHitbox(Graphics g) {
-		cactuses.drawHitbox(g);
-		birds.drawHitbox(g);
+	public void drawHitbox(Graphics g, EntityStore entities) {
+		cactuses.drawHitbox(g, entities);
+		birds.drawHitbox(g, entities);
 	}
 	
 }
@@ -0,0 +1,403 @@
+package manager;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import misc.EntityType;
+
+// every moving thing (cactuses, birds, clouds, coins, shield pickups) as one row in parallel arrays
+// rows are kept sorted by x, so culling takes them from the left and collision can binary search
+// row index is only valid until next sort() or cull()
+// rows are the pool of every spawned thing: arrays are made once for limits of all types,
+// spawn over limit is a miss and clear just marks rows free, nothing is allocated while playing
+public class EntityStore {
+
+	private static final EntityType[] TYPES = EntityType.values();
+
+	// row is gone, removed on next cull()
+	private static final int DEAD = 1;
+
+	// speed of each type by ordinal, so move() does not touch enum objects
+	private final double[] typeSpeed = new double[TYPES.length];
+	private final int[] typeCount = new int[TYPES.length];
+	// pool numbers per type
+	private final int[] typeLimit = new int[TYPES.length];
+	private final int[] typePeak = new int[TYPES.length];
+	private final long[] typeSpawned = new long[TYPES.length];
+	private final long[] typeMisses = new long[TYPES.length];
+
+	private int size = 0;
+	private double[] x = new double[0];
+	private double[] prevX = new double[0];
+	private int[] y = new int[0];
+	private int[] width = new int[0];
+	private int[] height = new int[0];
+	private int[] type = new int[0];
+	private int[] sprite = new int[0];
+	private int[] flags = new int[0];
+	// hitbox relative to x, y, zero width means row never collides
+	private int[] hitboxX = new int[0];
+	private int[] hitboxY = new int[0];
+	private int[] hitboxWidth = new int[0];
+	private int[] hitboxHeight = new int[0];
+	// widest row, anything starting further left than this from a point cant reach it
+	private int maxWidth = 0;
+
+	public EntityStore() {
+		for (EntityType t : TYPES) {
+			typeSpeed[t.ordinal()] = t.getSpeed();
+			typeLimit[t.ordinal()] = t.getLimit();
+		}
+		ensureCapacity();
+	}
+
+	// stress runs raise limits before playing, arrays grow here and never in spawn
+	public void setLimit(EntityType entityType, int limit) {
+		typeLimit[entityType.ordinal()] = limit;
+		ensureCapacity();
+	}
+
+	// adds row at its place in x order, things spawn on the right so it is almost always the end
+	// returns row index to set sprite or hitbox right away, -1 if type is at its limit
+	public int spawn(EntityType entityType, double x, int y, int width, int height, int sprite) {
+		int t = entityType.ordinal();
+		// killed rows still take space until cull, so size is checked too
+		if (typeCount[t] >= typeLimit[t] || size + 1 >= this.x.length) {
+			typeMisses[t]++;
+			return -1;
+		}
+		int i = size;
+		while (i > 0 && this.x[i - 1] > x) {
+			copy(i - 1, i);
+			i--;
+		}
+		this.x[i] = x;
+		this.prevX[i] = x;
+		this.y[i] = y;
+		this.width[i] = width;
+		this.height[i] = height;
+		this.type[i] = entityType.ordinal();
+		this.sprite[i] = sprite;
+		this.flags[i] = 0;
+		hitboxX[i] = 0;
+		hitboxY[i] = 0;
+		hitboxWidth[i] = 0;
+		hitboxHeight[i] = 0;
+		size++;
+		typeCount[t]++;
+		typeSpawned[t]++;
+		if (typeCount[t] > typePeak[t])
+			typePeak[t] = typeCount[t];
+		if (width > maxWidth)
+			maxWidth = width;
+		return i;
+	}
+
+	// move, sort and cull in one go, what world calls once per tick
+	public void update(double scrollX) {
+		move(scrollX);
+		sort();
+		cull();
+	}
+
+	// moves every row by ground scroll times speed of its type
+	public void move(double scrollX) {
+		for (int i = 0; i < size; i++) {
+			prevX[i] = x[i];
+			x[i] += scrollX * typeSpeed[type[i]];
+		}
+	}
+
+	// rows keep almost same order after move (only birds are faster)
+	// so insertion sort is mostly one pass
+	public void sort() {
+		for (int i = 1; i < size; i++) {
+			if (x[i - 1] <= x[i])
+				continue;
+			int j = i;
+			copy(j, size);
+			while (j > 0 && x[j - 1] > x[size]) {
+				copy(j - 1, j);
+				j--;
+			}
+			copy(size, j);
+		}
+	}
+
+	// drops killed rows and rows that left screen on the left, keeps order
+	public void cull() {
+		int kept = 0;
+		int widest = 0;
+		for (int i = 0; i < size; i++) {
+			if ((flags[i] & DEAD) == 0 && x[i] + width[i] >= 0) {
+				if (kept != i)
+					copy(i, kept);
+				if (width[kept] > widest)
+					widest = width[kept];
+				kept++;
+			} else if ((flags[i] & DEAD) == 0) {
+				typeCount[type[i]]--;
+			}
+		}
+		size = kept;
+		maxWidth = widest;
+	}
+
+	// row stays until next cull() but is skipped by everything
+	public void kill(int i) {
+		if ((flags[i] & DEAD) == 0) {
+			flags[i] |= DEAD;
+			typeCount[type[i]]--;
+		}
+	}
+
+	public void clear(EntityType entityType) {
+		for (int i = 0; i < size; i++)
+			if (type[i] == entityType.ordinal())
+				kill(i);
+		cull();
+	}
+
+	// true if some row of type ends right of edge, looks only at rows near the end
+	public boolean anyRightOf(EntityType entityType, double edge) {
+		for (int i = size - 1; i >= 0 && x[i] + maxWidth > edge; i--) {
+			if (type[i] == entityType.ordinal() && (flags[i] & DEAD) == 0 && x[i] + width[i] > edge)
+				return true;
+		}
+		return false;
+	}
+
+	// index of first row with x >= given x
+	public int firstFrom(double x) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (this.x[middle] < x)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	// every row and pool number into other store, render snapshot is drawn from such copy
+	// target grows only first time or when limits were raised, otherwise nothing is allocated
+	public void copyTo(EntityStore target) {
+		if (target.x.length < x.length)
+			target.resize(x.length);
+		System.arraycopy(x, 0, target.x, 0, size);
+		System.arraycopy(prevX, 0, target.prevX, 0, size);
+		System.arraycopy(y, 0, target.y, 0, size);
+		System.arraycopy(width, 0, target.width, 0, size);
+		System.arraycopy(height, 0, target.height, 0, size);
+		System.arraycopy(type, 0, target.type, 0, size);
+		System.arraycopy(sprite, 0, target.sprite, 0, size);
+		System.arraycopy(flags, 0, target.flags, 0, size);
+		System.arraycopy(hitboxX, 0, target.hitboxX, 0, size);
+		System.arraycopy(hitboxY, 0, target.hitboxY, 0, size);
+		System.arraycopy(hitboxWidth, 0, target.hitboxWidth, 0, size);
+		System.arraycopy(hitboxHeight, 0, target.hitboxHeight, 0, size);
+		System.arraycopy(typeCount, 0, target.typeCount, 0, TYPES.length);
+		System.arraycopy(typeLimit, 0, target.typeLimit, 0, TYPES.length);
+		System.arraycopy(typePeak, 0, target.typePeak, 0, TYPES.length);
+		System.arraycopy(typeSpawned, 0, target.typeSpawned, 0, TYPES.length);
+		System.arraycopy(typeMisses, 0, target.typeMisses, 0, TYPES.length);
+		target.size = size;
+		target.maxWidth = maxWidth;
+	}
+
+	// live rows only, killed ones would be culled anyway
+	// pool limits and stats are settings and diagnostics, not state
+	public void writeState(ByteBuffer buffer) {
+		int live = 0;
+		for (int i = 0; i < size; i++)
+			if ((flags[i] & DEAD) == 0)
+				live++;
+		buffer.putInt(live);
+		for (int i = 0; i < size; i++) {
+			if ((flags[i] & DEAD) != 0)
+				continue;
+			buffer.putDouble(x[i]);
+			buffer.putDouble(prevX[i]);
+			buffer.putInt(y[i]);
+			buffer.putInt(width[i]);
+			buffer.putInt(height[i]);
+			buffer.put((byte) type[i]);
+			buffer.putInt(sprite[i]);
+			buffer.putInt(flags[i]);
+			buffer.putInt(hitboxX[i]);
+			buffer.putInt(hitboxY[i]);
+			buffer.putInt(hitboxWidth[i]);
+			buffer.putInt(hitboxHeight[i]);
+		}
+	}
+
+	// rows are put back as they were, even over limits, so restored world is exactly same
+	public void readState(ByteBuffer buffer) {
+		int rows = buffer.getInt();
+		Arrays.fill(typeCount, 0);
+		size = 0;
+		maxWidth = 0;
+		if (rows + 1 > x.length)
+			resize(rows + 1);
+		for (int i = 0; i < rows; i++) {
+			x[i] = buffer.getDouble();
+			prevX[i] = buffer.getDouble();
+			y[i] = buffer.getInt();
+			width[i] = buffer.getInt();
+			height[i] = buffer.getInt();
+			type[i] = buffer.get();
+			sprite[i] = buffer.getInt();
+			flags[i] = buffer.getInt();
+			hitboxX[i] = buffer.getInt();
+			hitboxY[i] = buffer.getInt();
+			hitboxWidth[i] = buffer.getInt();
+			hitboxHeight[i] = buffer.getInt();
+			typeCount[type[i]]++;
+			if (width[i] > maxWidth)
+				maxWidth = width[i];
+		}
+		size = rows;
+	}
+
+	public void setHitbox(int i, int offsetX, int offsetY, int width, int height) {
+		hitboxX[i] = offsetX;
+		hitboxY[i] = offsetY;
+		hitboxWidth[i] = width;
+		hitboxHeight[i] = height;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int count(EntityType entityType) {
+		return typeCount[entityType.ordinal()];
+	}
+
+	public boolean isAlive(int i) {
+		return (flags[i] & DEAD) == 0;
+	}
+
+	public boolean is(int i, EntityType entityType) {
+		return type[i] == entityType.ordinal() && (flags[i] & DEAD) == 0;
+	}
+
+	public EntityType getType(int i) {
+		return TYPES[type[i]];
+	}
+
+	public double getX(int i) {
+		return x[i];
+	}
+
+	public double getPrevX(int i) {
+		return prevX[i];
+	}
+
+	public int getY(int i) {
+		return y[i];
+	}
+
+	public int getWidth(int i) {
+		return width[i];
+	}
+
+	public int getHeight(int i) {
+		return height[i];
+	}
+
+	public int getSprite(int i) {
+		return sprite[i];
+	}
+
+	public void setSprite(int i, int sprite) {
+		this.sprite[i] = sprite;
+	}
+
+	public int getHitboxX(int i) {
+		return (int) x[i] + hitboxX[i];
+	}
+
+	public int getHitboxY(int i) {
+		return y[i] + hitboxY[i];
+	}
+
+	public int getHitboxWidth(int i) {
+		return hitboxWidth[i];
+	}
+
+	public int getHitboxHeight(int i) {
+		return hitboxHeight[i];
+	}
+
+	public int getMaxWidth() {
+		return maxWidth;
+	}
+
+	public int getLimit(EntityType entityType) {
+		return typeLimit[entityType.ordinal()];
+	}
+
+	// most rows of type alive at once
+	public int getPeak(EntityType entityType) {
+		return typePeak[entityType.ordinal()];
+	}
+
+	public long getSpawned(EntityType entityType) {
+		return typeSpawned[entityType.ordinal()];
+	}
+
+	// spawns refused because type was at its limit
+	public long getMisses(EntityType entityType) {
+		return typeMisses[entityType.ordinal()];
+	}
+
+	// rows that can be alive at once, spare row for sort() is not counted
+	public int getCapacity() {
+		return x.length - 1;
+	}
+
+	// room for limits of all types, rows killed this tick take space until cull so twice that
+	// plus one spare row sort() uses as temporary
+	private void ensureCapacity() {
+		int rows = 0;
+		for (int limit : typeLimit)
+			rows += limit;
+		int capacity = rows * 2 + 1;
+		if (capacity > x.length)
+			resize(capacity);
+	}
+
+	private void resize(int capacity) {
+		x = Arrays.copyOf(x, capacity);
+		prevX = Arrays.copyOf(prevX, capacity);
+		y = Arrays.copyOf(y, capacity);
+		width = Arrays.copyOf(width, capacity);
+		height = Arrays.copyOf(height, capacity);
+		type = Arrays.copyOf(type, capacity);
+		sprite = Arrays.copyOf(sprite, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		hitboxX = Arrays.copyOf(hitboxX, capacity);
+		hitboxY = Arrays.copyOf(hitboxY, capacity);
+		hitboxWidth = Arrays.copyOf(hitboxWidth, capacity);
+		hitboxHeight = Arrays.copyOf(hitboxHeight, capacity);
+	}
+
+	private void copy(int from, int to) {
+		x[to] = x[from];
+		prevX[to] = prevX[from];
+		y[to] = y[from];
+		width[to] = width[from];
+		height[to] = height[from];
+		type[to] = type[from];
+		sprite[to] = sprite[from];
+		flags[to] = flags[from];
+		hitboxX[to] = hitboxX[from];
+		hitboxY[to] = hitboxY[from];
+		hitboxWidth[to] = hitboxWidth[from];
+		hitboxHeight[to] = hitboxHeight[from];
+	}
+
+}
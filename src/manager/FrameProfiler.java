@@ -0,0 +1,84 @@
+package manager;
+
+import misc.FramePhase;
+import util.LatencyHistogram;
+
+// how long each phase of game loop takes, histogram per phase and last frame times for graph
+// recording is nanoTime and few array writes, nothing is allocated
+public class FrameProfiler {
+
+	public static final int GRAPH_SIZE = 240;
+
+	private LatencyHistogram[] histograms = new LatencyHistogram[FramePhase.values().length];
+	// from key event on EDT until tick that applies it starts
+	private LatencyHistogram inputDelay = new LatencyHistogram();
+	// frame times in nanos, ring with graphHead as next slot
+	private long[] graph = new long[GRAPH_SIZE];
+	private int graphHead = 0;
+	// ticks still owed after last frame, and ticks given up on when loop fell too far behind
+	private volatile long ticksBehind = 0;
+	private volatile long ticksDropped = 0;
+
+	public FrameProfiler() {
+		for (int i = 0; i < histograms.length; i++)
+			histograms[i] = new LatencyHistogram();
+	}
+
+	public void record(FramePhase phase, long nanos) {
+		histograms[phase.ordinal()].record(nanos);
+		if (phase == FramePhase.FRAME) {
+			graph[graphHead] = nanos;
+			graphHead = (graphHead + 1) % GRAPH_SIZE;
+		}
+	}
+
+	// records time since start and returns now, so phases can be chained with one nanoTime each
+	public long lap(FramePhase phase, long start) {
+		long now = System.nanoTime();
+		record(phase, now - start);
+		return now;
+	}
+
+	public void recordInputDelay(long nanos) {
+		inputDelay.record(nanos);
+	}
+
+	public LatencyHistogram getInputDelay() {
+		return inputDelay;
+	}
+
+	// only game loop thread writes these
+	public void setTicksBehind(long ticks) {
+		ticksBehind = ticks;
+	}
+
+	public void dropTicks(long ticks) {
+		ticksDropped += ticks;
+	}
+
+	public long getTicksBehind() {
+		return ticksBehind;
+	}
+
+	public long getTicksDropped() {
+		return ticksDropped;
+	}
+
+	public LatencyHistogram get(FramePhase phase) {
+		return histograms[phase.ordinal()];
+	}
+
+	// i-th frame time, 0 is oldest
+	public long getGraph(int i) {
+		return graph[(graphHead + i) % GRAPH_SIZE];
+	}
+
+	public void reset() {
+		for (LatencyHistogram histogram : histograms)
+			histogram.reset();
+		inputDelay.reset();
+		for (int i = 0; i < GRAPH_SIZE; i++)
+			graph[i] = 0;
+	}
+
+}
@@ -0,0 +1,84 @@
+package manager;
+
+import misc.LatencyStage;
+import util.LatencyHistogram;
+
+// input to photon measurement: jump or duck press is tagged when its tick applies it,
+// tag rides in RenderSnapshot and first frame drawn from such snapshot records every stage
+// presses that come before previous one reached screen replace it, so only last one is measured
+public class LatencyProbe {
+
+	private LatencyHistogram[] stages = new LatencyHistogram[LatencyStage.values().length];
+
+	// game thread side, press applied this tick and last finished tag
+	private boolean pending = false;
+	private long pendingKeyNanos;
+	private long pendingAppliedNanos;
+	private long tag = 0;
+	private long keyNanos;
+	private long appliedNanos;
+	private long tickDoneNanos;
+
+	// render thread side
+	private long presentedTag = 0;
+
+	public LatencyProbe() {
+		for (int i = 0; i < stages.length; i++)
+			stages[i] = new LatencyHistogram();
+	}
+
+	// game thread, key press with its EDT stamp was just applied
+	public void applied(long keyNanos, long appliedNanos) {
+		pending = true;
+		pendingKeyNanos = keyNanos;
+		pendingAppliedNanos = appliedNanos;
+	}
+
+	// game thread, end of tick, press applied in it becomes tag that next snapshot carries
+	public void tickDone() {
+		if (!pending)
+			return;
+		pending = false;
+		tag++;
+		keyNanos = pendingKeyNanos;
+		appliedNanos = pendingAppliedNanos;
+		tickDoneNanos = System.nanoTime();
+	}
+
+	public long getTag() {
+		return tag;
+	}
+
+	public long getKeyNanos() {
+		return keyNanos;
+	}
+
+	public long getAppliedNanos() {
+		return appliedNanos;
+	}
+
+	public long getTickDoneNanos() {
+		return tickDoneNanos;
+	}
+
+	// render thread, frame drawn from snapshot is now on screen
+	public void presented(RenderSnapshot snapshot, long presentedNanos) {
+		if (snapshot.getLatencyTag() <= presentedTag)
+			return;
+		presentedTag = snapshot.getLatencyTag();
+		record(LatencyStage.QUEUE, snapshot.getLatencyAppliedNanos() - snapshot.getLatencyKeyNanos());
+		record(LatencyStage.TICK, snapshot.getLatencyTickDoneNanos() - snapshot.getLatencyAppliedNanos());
+		record(LatencyStage.PUBLISH, snapshot.getCapturedNanos() - snapshot.getLatencyTickDoneNanos());
+		record(LatencyStage.PRESENT, presentedNanos - snapshot.getCapturedNanos());
+		record(LatencyStage.TOTAL, presentedNanos - snapshot.getLatencyKeyNanos());
+	}
+
+	private void record(LatencyStage stage, long nanos) {
+		stages[stage.ordinal()].record(nanos);
+	}
+
+	public LatencyHistogram get(LatencyStage stage) {
+		return stages[stage.ordinal()];
+	}
+
+}
@@ -0,0 +1,146 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// best score of every player, safe to submit from many threads at once
+// only submissions of same player wait for each other, different players never do
+public class Leaderboard {
+
+	// score has 5 digits on screen, anything above is counted as max
+	public static final int MAX_SCORE = 99999;
+
+	public static class Entry {
+
+		private final String player;
+		private final int score;
+
+		private Entry(String player, int score) {
+			this.player = player;
+			this.score = score;
+		}
+
+		public String getPlayer() {
+			return player;
+		}
+
+		public int getScore() {
+			return score;
+		}
+
+	}
+
+	// highest score first, same score by name so every entry has its own place
+	private static final Comparator<Entry> ORDER = (a, b) -> a.score != b.score ? Integer.compare(b.score, a.score)
+			: a.player.compareTo(b.player);
+
+	private static class Best {
+
+		private volatile int score = -1;
+
+	}
+
+	private ConcurrentHashMap<String, Best> bests = new ConcurrentHashMap<String, Best>();
+	// same bests sorted, top-K is walk over first K
+	private ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<Entry>(ORDER);
+	// fenwick tree of how many players have each best score, rank of score is one prefix sum
+	// index is score + 1 because fenwick tree starts at 1
+	private AtomicIntegerArray counts = new AtomicIntegerArray(MAX_SCORE + 2);
+	private AtomicInteger players = new AtomicInteger();
+
+	private AtomicLong submitted = new AtomicLong();
+	private AtomicLong improved = new AtomicLong();
+
+	// true if it is new best of player
+	// ranking and counts are updated one after other, so query running at same time can see
+	// player moved in one of them and not yet in other, for leaderboard that is good enough
+	public boolean submit(String player, int score) {
+		submitted.incrementAndGet();
+		score = Math.max(0, Math.min(MAX_SCORE, score));
+		Best best = bests.get(player);
+		if (best == null) {
+			best = new Best();
+			Best existing = bests.putIfAbsent(player, best);
+			if (existing != null)
+				best = existing;
+		}
+		// most submissions are not new best, those return without lock
+		if (score <= best.score)
+			return false;
+		// lock is per player, so old entry is always removed after it was added
+		synchronized (best) {
+			int old = best.score;
+			if (score <= old)
+				return false;
+			best.score = score;
+			ranking.add(new Entry(player, score));
+			count(score, 1);
+			if (old >= 0) {
+				ranking.remove(new Entry(player, old));
+				count(old, -1);
+			} else
+				players.incrementAndGet();
+		}
+		improved.incrementAndGet();
+		return true;
+	}
+
+	private void count(int score, int delta) {
+		for (int i = score + 1; i < counts.length(); i += i & -i)
+			counts.addAndGet(i, delta);
+	}
+
+	// players with best at most score
+	private int countUpTo(int score) {
+		int sum = 0;
+		for (int i = score + 1; i > 0; i -= i & -i)
+			sum += counts.get(i);
+		return sum;
+	}
+
+	// place score would have, 1 is first, players with same score share place
+	public int getRankOf(int score) {
+		score = Math.max(0, Math.min(MAX_SCORE, score));
+		return countUpTo(MAX_SCORE) - countUpTo(score) + 1;
+	}
+
+	// 0 if player has no score
+	public int getRank(String player) {
+		int best = getBest(player);
+		return best < 0 ? 0 : getRankOf(best);
+	}
+
+	// -1 if player has no score
+	public int getBest(String player) {
+		Best best = bests.get(player);
+		return best == null ? -1 : best.score;
+	}
+
+	public List<Entry> getTop(int k) {
+		List<Entry> top = new ArrayList<Entry>(Math.min(k, 100));
+		Iterator<Entry> it = ranking.iterator();
+		while (top.size() < k && it.hasNext())
+			top.add(it.next());
+		return top;
+	}
+
+	public int getPlayerCount() {
+		return players.get();
+	}
+
+	public long getSubmitted() {
+		return submitted.get();
+	}
+
+	public long getImproved() {
+		return improved.get();
+	}
+
+}
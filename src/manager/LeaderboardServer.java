@@ -0,0 +1,163 @@
+package manager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// leaderboard over http on localhost, every game on same machine can post its scores here
+//   POST /scores   player=name&score=123  -> rank and best of player
+//   GET  /top?k=10                        -> "rank player score" lines
+//   GET  /rank?player=name or ?score=123  -> rank
+// requests are handled on small pool so submissions run in parallel, leaderboard itself does not lock
+public class LeaderboardServer {
+
+	private static final int MAX_BODY = 1024;
+	private static final int MAX_TOP = 1000;
+
+	private Leaderboard leaderboard;
+	private HttpServer server;
+	private ExecutorService executor;
+
+	public LeaderboardServer(Leaderboard leaderboard) {
+		this.leaderboard = leaderboard;
+	}
+
+	// port 0 picks free one, see getPort()
+	public void start(int port, int threads) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "Leaderboard server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.createContext("/scores", this::handleScores);
+		server.createContext("/top", this::handleTop);
+		server.createContext("/rank", this::handleRank);
+		server.start();
+	}
+
+	public void stop() {
+		if (server == null)
+			return;
+		server.stop(0);
+		executor.shutdown();
+		server = null;
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	private void handleScores(HttpExchange exchange) throws IOException {
+		if (!"POST".equals(exchange.getRequestMethod())) {
+			send(exchange, 405, "use POST\n");
+			return;
+		}
+		Map<String, String> params;
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] body = in.readNBytes(MAX_BODY + 1);
+			if (body.length > MAX_BODY) {
+				send(exchange, 413, "body too long\n");
+				return;
+			}
+			params = parse(new String(body, StandardCharsets.UTF_8));
+		}
+		String player = params.get("player");
+		Integer score = toInt(params.get("score"));
+		if (player == null || player.isEmpty() || score == null || score < 0) {
+			send(exchange, 400, "need player and score\n");
+			return;
+		}
+		boolean improved = leaderboard.submit(player, score);
+		send(exchange, 200, "rank=" + leaderboard.getRank(player) + "\nbest=" + leaderboard.getBest(player)
+				+ "\nimproved=" + improved + "\n");
+	}
+
+	private void handleTop(HttpExchange exchange) throws IOException {
+		Integer k = toInt(parse(exchange.getRequestURI().getRawQuery()).getOrDefault("k", "10"));
+		if (k == null || k < 1) {
+			send(exchange, 400, "bad k\n");
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		int rank = 0;
+		int lastScore = -1;
+		int position = 0;
+		for (Leaderboard.Entry e : leaderboard.getTop(Math.min(k, MAX_TOP))) {
+			position++;
+			// same score same place, like getRankOf
+			if (e.getScore() != lastScore)
+				rank = position;
+			lastScore = e.getScore();
+			sb.append(rank).append(' ').append(e.getPlayer()).append(' ').append(e.getScore()).append('\n');
+		}
+		send(exchange, 200, sb.toString());
+	}
+
+	private void handleRank(HttpExchange exchange) throws IOException {
+		Map<String, String> params = parse(exchange.getRequestURI().getRawQuery());
+		String player = params.get("player");
+		Integer score = toInt(params.get("score"));
+		if (player != null) {
+			int rank = leaderboard.getRank(player);
+			if (rank == 0)
+				send(exchange, 404, "no score for " + player + "\n");
+			else
+				send(exchange, 200, "rank=" + rank + "\nbest=" + leaderboard.getBest(player) + "\n");
+		} else if (score != null)
+			send(exchange, 200, "rank=" + leaderboard.getRankOf(score) + "\n");
+		else
+			send(exchange, 400, "need player or score\n");
+	}
+
+	private static void send(HttpExchange exchange, int status, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	// a=1&b=2 from query or form body
+	private static Map<String, String> parse(String query) {
+		Map<String, String> params = new HashMap<String, String>();
+		if (query == null)
+			return params;
+		for (String pair : query.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq <= 0)
+				continue;
+			try {
+				params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8.name()),
+						URLDecoder.decode(pair.substring(eq + 1).trim(), StandardCharsets.UTF_8.name()));
+			} catch (IOException | IllegalArgumentException e) {
+				// broken escape, pair is skipped
+			}
+		}
+		return params;
+	}
+
+	private static Integer toInt(String value) {
+		if (value == null)
+			return null;
+		try {
+			return Integer.valueOf(value);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+}
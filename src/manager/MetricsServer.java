@@ -0,0 +1,187 @@
+package manager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import misc.EntityType;
+import misc.FramePhase;
+import util.LatencyHistogram;
+import util.ScoreWriter;
+
+// GET /metrics in OpenMetrics text on localhost, for scraping unattended cabinets
+// game thread only bumps counters it keeps anyway, everything here runs on server thread when scraped
+public class MetricsServer {
+
+	private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+	private static final double[] QUANTILES = { 50, 90, 99, 99.9 };
+	private static final String[] QUANTILE_LABELS = { "0.5", "0.9", "0.99", "0.999" };
+
+	private WorldManager world;
+	private HttpServer server;
+
+	public MetricsServer(WorldManager world) {
+		this.world = world;
+	}
+
+	// port 0 picks free one, see getPort()
+	public void start(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "Metrics server");
+			thread.setDaemon(true);
+			return thread;
+		}));
+		server.createContext("/metrics", this::handle);
+		server.start();
+	}
+
+	public void stop() {
+		if (server == null)
+			return;
+		server.stop(0);
+		server = null;
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		byte[] bytes = scrape().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	public String scrape() {
+		StringBuilder sb = new StringBuilder(4096);
+		FrameProfiler profiler = world.getProfiler();
+		if (profiler != null) {
+			family(sb, "dino_frames", "counter", "Game loop passes.");
+			sample(sb, "dino_frames_total", "", profiler.get(FramePhase.FRAME).getCount());
+			family(sb, "dino_frames_rendered", "counter", "Frames painted.");
+			sample(sb, "dino_frames_rendered_total", "", profiler.get(FramePhase.PAINT).getCount());
+			family(sb, "dino_phase_seconds", "summary", "Time spent in each game loop phase, tick phases per tick.");
+			for (FramePhase phase : FramePhase.values()) {
+				LatencyHistogram h = profiler.get(phase);
+				String label = "phase=\"" + phase.name().toLowerCase(Locale.ROOT) + "\"";
+				for (int i = 0; i < QUANTILES.length; i++)
+					sample(sb, "dino_phase_seconds", label + ",quantile=\"" + QUANTILE_LABELS[i] + "\"",
+							h.getPercentile(QUANTILES[i]) / 1e9);
+				sample(sb, "dino_phase_seconds_sum", label, h.getSum() / 1e9);
+				sample(sb, "dino_phase_seconds_count", label, h.getCount());
+			}
+			family(sb, "dino_phase_max_seconds", "gauge", "Longest time seen in each game loop phase.");
+			for (FramePhase phase : FramePhase.values())
+				sample(sb, "dino_phase_max_seconds", "phase=\"" + phase.name().toLowerCase(Locale.ROOT) + "\"",
+						profiler.get(phase).getMax() / 1e9);
+			LatencyHistogram delay = profiler.getInputDelay();
+			family(sb, "dino_input_delay_seconds", "summary", "Time from key event until tick that applies it.");
+			for (int i = 0; i < QUANTILES.length; i++)
+				sample(sb, "dino_input_delay_seconds", "quantile=\"" + QUANTILE_LABELS[i] + "\"",
+						delay.getPercentile(QUANTILES[i]) / 1e9);
+			sample(sb, "dino_input_delay_seconds_sum", "", delay.getSum() / 1e9);
+			sample(sb, "dino_input_delay_seconds_count", "", delay.getCount());
+			family(sb, "dino_ticks_behind", "gauge", "Simulation ticks owed after last frame.");
+			sample(sb, "dino_ticks_behind", "", profiler.getTicksBehind());
+			family(sb, "dino_ticks_dropped", "counter", "Ticks skipped because loop fell too far behind.");
+			sample(sb, "dino_ticks_dropped_total", "", profiler.getTicksDropped());
+		}
+		family(sb, "dino_input_queue_depth", "gauge", "Key events waiting for next tick.");
+		sample(sb, "dino_input_queue_depth", "", world.getPendingInput().size());
+		family(sb, "dino_input_dropped", "counter", "Key events dropped because input ring was full.");
+		sample(sb, "dino_input_dropped_total", "", world.getPendingInput().getDropped());
+		family(sb, "dino_ticks", "counter", "Simulation ticks since start.");
+		sample(sb, "dino_ticks_total", "", world.getTick());
+		family(sb, "dino_score", "gauge", "Score of current game.");
+		sample(sb, "dino_score", "", world.getScore().getScore());
+
+		EntityStore entities = world.getEntities();
+		family(sb, "dino_entities", "gauge", "Live entity rows by type.");
+		for (EntityType type : EntityType.values())
+			sample(sb, "dino_entities", typeLabel(type), entities.count(type));
+		family(sb, "dino_entities_limit", "gauge", "Most rows allowed by type.");
+		for (EntityType type : EntityType.values())
+			sample(sb, "dino_entities_limit", typeLabel(type), entities.getLimit(type));
+		family(sb, "dino_entity_spawns", "counter", "Rows spawned by type.");
+		for (EntityType type : EntityType.values())
+			sample(sb, "dino_entity_spawns_total", typeLabel(type), entities.getSpawned(type));
+		family(sb, "dino_entity_spawn_misses", "counter", "Spawns refused because type was at its limit.");
+		for (EntityType type : EntityType.values())
+			sample(sb, "dino_entity_spawn_misses_total", typeLabel(type), entities.getMisses(type));
+		family(sb, "dino_coins", "gauge", "Coins collected in current game.");
+		sample(sb, "dino_coins", "", world.getCoinManager().getCoinCount());
+
+		AudioEngine audio = world.getAudio();
+		family(sb, "dino_sound_queue_depth", "gauge", "Sounds waiting for mixer thread.");
+		sample(sb, "dino_sound_queue_depth", "", audio.getQueuedCount());
+		family(sb, "dino_sounds_played", "counter", "Sounds started by mixer.");
+		sample(sb, "dino_sounds_played_total", "", audio.getPlayedCount());
+		family(sb, "dino_sounds_dropped", "counter", "Sounds dropped because queue was full.");
+		sample(sb, "dino_sounds_dropped_total", "", audio.getDroppedCount());
+
+		ScoreWriter scores = world.getScore().getScoreWriter();
+		if (scores != null) {
+			family(sb, "dino_score_queue_depth", "gauge", "Scores waiting for writer thread.");
+			sample(sb, "dino_score_queue_depth", "", scores.getQueued());
+			family(sb, "dino_score_writes", "counter", "Scores by what happened to them.");
+			sample(sb, "dino_score_writes_total", "result=\"written\"", scores.getWritten());
+			sample(sb, "dino_score_writes_total", "result=\"failed\"", scores.getFailed());
+			sample(sb, "dino_score_writes_total", "result=\"dropped\"", scores.getDropped());
+			family(sb, "dino_score_batches", "counter", "Batches written to score file.");
+			sample(sb, "dino_score_batches_total", "", scores.getBatches());
+		}
+
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		family(sb, "jvm_heap_bytes", "gauge", "Heap memory.");
+		sample(sb, "jvm_heap_bytes", "area=\"used\"", heap.getUsed());
+		sample(sb, "jvm_heap_bytes", "area=\"committed\"", heap.getCommitted());
+		sample(sb, "jvm_heap_bytes", "area=\"max\"", heap.getMax());
+		family(sb, "jvm_gc_collections", "counter", "Collections by collector.");
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			sample(sb, "jvm_gc_collections_total", "gc=\"" + gc.getName() + "\"", Math.max(0, gc.getCollectionCount()));
+		family(sb, "jvm_gc_collection_seconds", "counter", "Time spent collecting by collector.");
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			sample(sb, "jvm_gc_collection_seconds_total", "gc=\"" + gc.getName() + "\"",
+					Math.max(0, gc.getCollectionTime()) / 1000D);
+		family(sb, "jvm_threads", "gauge", "Live threads.");
+		sample(sb, "jvm_threads", "", ManagementFactory.getThreadMXBean().getThreadCount());
+		sb.append("# EOF\n");
+		return sb.toString();
+	}
+
+	private static String typeLabel(EntityType type) {
+		return "type=\"" + type.name().toLowerCase(Locale.ROOT) + "\"";
+	}
+
+	private static void family(StringBuilder sb, String name, String type, String help) {
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+	}
+
+	private static void sample(StringBuilder sb, String name, String labels, double value) {
+		sb.append(name);
+		if (!labels.isEmpty())
+			sb.append('{').append(labels).append('}');
+		sb.append(' ');
+		if (value == Math.rint(value) && Math.abs(value) < 1e15)
+			sb.append((long) value);
+		else
+			sb.append(value);
+		sb.append('\n');
+	}
+
+}
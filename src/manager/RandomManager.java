@@ -0,0 +1,48 @@
+package manager;
+
+import java.nio.ByteBuffer;
+
+import misc.RandomStream;
+import util.FastRandom;
+
+// every random number of a run comes from here, same seed gives same run
+// each stream has its own generator so e.g. one more cloud does not change which enemies come
+public class RandomManager {
+
+	private long seed;
+	private FastRandom[] streams = new FastRandom[RandomStream.values().length];
+
+	public RandomManager(long seed) {
+		for (int i = 0; i < streams.length; i++)
+			streams[i] = new FastRandom(0);
+		setSeed(seed);
+	}
+
+	// starts every stream over from given seed
+	public void setSeed(long seed) {
+		this.seed = seed;
+		for (int i = 0; i < streams.length; i++)
+			streams[i].setSeed(FastRandom.mix(seed + i + 1));
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void writeState(ByteBuffer buffer) {
+		buffer.putLong(seed);
+		for (FastRandom stream : streams)
+			buffer.putLong(stream.getState());
+	}
+
+	public void readState(ByteBuffer buffer) {
+		seed = buffer.getLong();
+		for (FastRandom stream : streams)
+			stream.setState(buffer.getLong());
+	}
+
+	public FastRandom get(RandomStream stream) {
+		return streams[stream.ordinal()];
+	}
+
+}
@@ -0,0 +1,199 @@
+package manager;
+
+import java.awt.image.BufferedImage;
+
+import misc.DinoState;
+import misc.GameState;
+import misc.Hitbox;
+
+// everything drawing needs from one moment of world, copied on game thread
+// renderer reads only this, so world can change while frame is being painted
+// same few snapshots are filled again and again, see TripleBuffer
+public class RenderSnapshot {
+
+	private EntityStore entities = new EntityStore();
+	private double interpolation = 1;
+	private long tick;
+	private long seed;
+	private GameState gameState;
+	private boolean day;
+	private int shakeDuration;
+	private int introCountdown;
+	private double speedX;
+
+	private double dinoY;
+	private double dinoPrevY;
+	private DinoState dinoState;
+	private BufferedImage dinoSprite;
+	private Hitbox dinoHitbox = new Hitbox();
+
+	private double landX;
+	private double landPrevX;
+	private int score;
+	private int hiScore;
+	private int coinCount;
+	private boolean shieldActive;
+	private int shieldRemaining;
+	private long timeUntilNextShield;
+
+	// latency probe tag of last press applied before capture, 0 when not measuring
+	private long capturedNanos;
+	private long latencyTag;
+	private long latencyKeyNanos;
+	private long latencyAppliedNanos;
+	private long latencyTickDoneNanos;
+
+	// only from thread that updates world, interpolation is how far rendering is between last two ticks
+	public void capture(WorldManager world, double interpolation) {
+		this.interpolation = world.isMoving() ? interpolation : 1;
+		tick = world.getTick();
+		seed = world.getSeed();
+		gameState = world.getGameState();
+		day = world.isDay();
+		shakeDuration = world.getShakeDuration();
+		introCountdown = world.getIntroCountdown();
+		speedX = world.getSpeedX();
+		world.getEntities().copyTo(entities);
+
+		dinoY = world.getDino().getY();
+		dinoPrevY = world.getDino().getPrevY();
+		dinoState = world.getDino().getDinoState();
+		dinoSprite = world.getDino().getSprite();
+		Hitbox hitbox = world.getDino().getHitbox();
+		dinoHitbox.set(hitbox.x, hitbox.y, hitbox.width, hitbox.height);
+
+		landX = world.getLand().getX();
+		landPrevX = world.getLand().getPrevX();
+		score = world.getScore().getScore();
+		hiScore = world.getScore().getHiScore();
+		coinCount = world.getCoinManager().getCoinCount();
+		shieldActive = world.getShield().isActive();
+		shieldRemaining = world.getShield().getRemainingTime(world.getTime());
+		timeUntilNextShield = world.getTimeUntilNextShield();
+
+		LatencyProbe probe = world.getLatencyProbe();
+		if (probe != null) {
+			latencyTag = probe.getTag();
+			latencyKeyNanos = probe.getKeyNanos();
+			latencyAppliedNanos = probe.getAppliedNanos();
+			latencyTickDoneNanos = probe.getTickDoneNanos();
+		}
+		capturedNanos = System.nanoTime();
+	}
+
+	// position between previous and current tick
+	public double interpolate(double previous, double current) {
+		return previous + (current - previous) * interpolation;
+	}
+
+	public EntityStore getEntities() {
+		return entities;
+	}
+
+	public double getInterpolation() {
+		return interpolation;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	// run seed, renderer seeds its own effects from it
+	public long getSeed() {
+		return seed;
+	}
+
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	public boolean isDay() {
+		return day;
+	}
+
+	public int getShakeDuration() {
+		return shakeDuration;
+	}
+
+	public int getIntroCountdown() {
+		return introCountdown;
+	}
+
+	public double getSpeedX() {
+		return speedX;
+	}
+
+	public double getDinoY() {
+		return dinoY;
+	}
+
+	public double getDinoPrevY() {
+		return dinoPrevY;
+	}
+
+	public DinoState getDinoState() {
+		return dinoState;
+	}
+
+	// running sprite of dino, null when dino is drawn from its own region (jump, dead)
+	public BufferedImage getDinoSprite() {
+		return dinoSprite;
+	}
+
+	public Hitbox getDinoHitbox() {
+		return dinoHitbox;
+	}
+
+	public double getLandX() {
+		return landX;
+	}
+
+	public double getLandPrevX() {
+		return landPrevX;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public int getHiScore() {
+		return hiScore;
+	}
+
+	public int getCoinCount() {
+		return coinCount;
+	}
+
+	public boolean isShieldActive() {
+		return shieldActive;
+	}
+
+	public int getShieldRemaining() {
+		return shieldRemaining;
+	}
+
+	public long getTimeUntilNextShield() {
+		return timeUntilNextShield;
+	}
+
+	public long getCapturedNanos() {
+		return capturedNanos;
+	}
+
+	public long getLatencyTag() {
+		return latencyTag;
+	}
+
+	public long getLatencyKeyNanos() {
+		return latencyKeyNanos;
+	}
+
+	public long getLatencyAppliedNanos() {
+		return latencyAppliedNanos;
+	}
+
+	public long getLatencyTickDoneNanos() {
+		return latencyTickDoneNanos;
+	}
+
+}
@@ -0,0 +1,276 @@
+package manager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import misc.InputEvent;
+
+// recorded run: seed, every input edge with tick it happened on and world state every few seconds
+// input is one varint per edge, (ticks since last edge << 3 | event), so usually single byte
+// every size in file is checked on load and keyframe state has crc, broken file is IOException and never replayed
+public class Replay {
+
+	private static final int MAGIC = 0x44494E52; // "DINR"
+	private static final int VERSION = 3;
+	// anything above is not a rate anyone records at, tick length would round to nothing
+	private static final int MAX_TICK_RATE = 10_000;
+	private static final InputEvent[] EVENTS = InputEvent.values();
+	// keyframe every 1000 ticks, seeking never replays more than that
+	public static final int KEYFRAME_INTERVAL = 1000;
+
+	public static class Keyframe {
+
+		private final long tick;
+		// where in log events after this keyframe start, and tick the delta there is counted from
+		private final int logOffset;
+		private final long lastEventTick;
+		private final byte[] state;
+
+		private Keyframe(long tick, int logOffset, long lastEventTick, byte[] state) {
+			this.tick = tick;
+			this.logOffset = logOffset;
+			this.lastEventTick = lastEventTick;
+			this.state = state;
+		}
+
+		public long getTick() {
+			return tick;
+		}
+
+		public int getLogOffset() {
+			return logOffset;
+		}
+
+		public long getLastEventTick() {
+			return lastEventTick;
+		}
+
+		public byte[] getState() {
+			return state;
+		}
+
+	}
+
+	private long seed;
+	private int tickRate;
+	private long endTick;
+
+	private byte[] log = new byte[256];
+	private int logLength = 0;
+	private int eventCount = 0;
+	private long lastEventTick;
+	private List<Keyframe> keyframes = new ArrayList<Keyframe>();
+
+	public Replay(long seed, int tickRate, long startTick) {
+		this.seed = seed;
+		this.tickRate = tickRate;
+		this.lastEventTick = startTick;
+		this.endTick = startTick;
+	}
+
+	// events must come in tick order
+	public synchronized void record(long tick, InputEvent event) {
+		writeVarint((tick - lastEventTick) << 3 | event.ordinal());
+		lastEventTick = tick;
+		eventCount++;
+		endTick = Math.max(endTick, tick);
+	}
+
+	public synchronized void addKeyframe(long tick, byte[] state) {
+		keyframes.add(new Keyframe(tick, logLength, lastEventTick, state));
+		endTick = Math.max(endTick, tick);
+	}
+
+	public synchronized void setEndTick(long tick) {
+		endTick = Math.max(endTick, tick);
+	}
+
+	private void writeVarint(long value) {
+		while (true) {
+			if (logLength == log.length)
+				log = Arrays.copyOf(log, log.length * 2);
+			if ((value & ~0x7FL) == 0) {
+				log[logLength++] = (byte) value;
+				return;
+			}
+			log[logLength++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+	}
+
+	// reads varint at offset, returns it and puts offset after it into next[0]
+	// never reads past end of log, load() already refused logs where varint is cut off
+	long readVarint(int offset, int[] next) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = log[offset++];
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0 && offset < logLength);
+		next[0] = offset;
+		return value;
+	}
+
+	static InputEvent eventOf(long entry) {
+		return EVENTS[(int) (entry & 7)];
+	}
+
+	static long deltaOf(long entry) {
+		return entry >>> 3;
+	}
+
+	// last keyframe at or before tick, null if there is none
+	public Keyframe findKeyframe(long tick) {
+		Keyframe found = null;
+		for (Keyframe keyframe : keyframes) {
+			if (keyframe.tick > tick)
+				break;
+			found = keyframe;
+		}
+		return found;
+	}
+
+	public synchronized void save(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeLong(seed);
+			out.writeInt(tickRate);
+			out.writeLong(endTick);
+			out.writeInt(eventCount);
+			out.writeInt(logLength);
+			out.write(log, 0, logLength);
+			out.writeInt(keyframes.size());
+			for (Keyframe keyframe : keyframes) {
+				out.writeLong(keyframe.tick);
+				out.writeInt(keyframe.logOffset);
+				out.writeLong(keyframe.lastEventTick);
+				out.writeInt(keyframe.state.length);
+				out.write(keyframe.state);
+				out.writeLong(checksum(keyframe.state));
+			}
+		}
+	}
+
+	private static long checksum(byte[] state) {
+		CRC32 crc = new CRC32();
+		crc.update(state);
+		return crc.getValue();
+	}
+
+	public static Replay load(File file) throws IOException {
+		// no length in file can be more than file itself, so damaged one cant make us allocate gigabytes
+		long fileLength = file.length();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Not a replay file: " + file);
+			int version = in.readShort();
+			if (version != VERSION)
+				throw new IOException("Unsupported replay version " + version);
+			long seed = in.readLong();
+			int tickRate = in.readInt();
+			if (tickRate < 1 || tickRate > MAX_TICK_RATE)
+				throw new IOException("Replay tick rate " + tickRate + " is not valid");
+			Replay replay = new Replay(seed, tickRate, 0);
+			replay.endTick = in.readLong();
+			replay.eventCount = in.readInt();
+			replay.logLength = checkLength(in.readInt(), fileLength, "input log length");
+			replay.log = new byte[Math.max(1, replay.logLength)];
+			in.readFully(replay.log, 0, replay.logLength);
+			boolean[] boundaries = replay.checkLog();
+			long lastTick = Long.MIN_VALUE;
+			for (int i = 0, count = checkLength(in.readInt(), fileLength, "keyframe count"); i < count; i++) {
+				long tick = in.readLong();
+				int logOffset = in.readInt();
+				long lastEventTick = in.readLong();
+				if (tick < lastTick)
+					throw new IOException("Replay keyframes are out of order");
+				if (logOffset < 0 || logOffset > replay.logLength || !boundaries[logOffset])
+					throw new IOException("Replay keyframe points outside input log");
+				byte[] state = new byte[checkLength(in.readInt(), fileLength, "keyframe size")];
+				in.readFully(state);
+				if (in.readLong() != checksum(state))
+					throw new IOException("Replay keyframe at tick " + tick + " is damaged");
+				replay.keyframes.add(new Keyframe(tick, logOffset, lastEventTick, state));
+				lastTick = tick;
+			}
+			return replay;
+		}
+	}
+
+	private static int checkLength(int length, long fileLength, String what) throws IOException {
+		if (length < 0 || length > fileLength)
+			throw new IOException("Replay " + what + " " + length + " is not valid");
+		return length;
+	}
+
+	// walks whole log once, every varint must end inside it and name real event
+	// returns offsets where varints start, keyframes may only point there
+	private boolean[] checkLog() throws IOException {
+		boolean[] boundaries = new boolean[logLength + 1];
+		int offset = 0;
+		int events = 0;
+		while (offset < logLength) {
+			boundaries[offset] = true;
+			long value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				if (offset == logLength || shift > 63)
+					throw new IOException("Replay input log is cut off");
+				b = log[offset++];
+				value |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			if ((value & 7) >= EVENTS.length)
+				throw new IOException("Replay input log has unknown event " + (value & 7));
+			events++;
+		}
+		boundaries[logLength] = true;
+		if (events != eventCount)
+			throw new IOException("Replay has " + events + " events but says " + eventCount);
+		return boundaries;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	// tick recording started on, first keyframe is always there
+	public long getStartTick() {
+		return keyframes.isEmpty() ? 0 : keyframes.get(0).tick;
+	}
+
+	public long getEndTick() {
+		return endTick;
+	}
+
+	public int getEventCount() {
+		return eventCount;
+	}
+
+	public int getLogLength() {
+		return logLength;
+	}
+
+	public List<Keyframe> getKeyframes() {
+		return keyframes;
+	}
+
+}
@@ -0,0 +1,68 @@
+package manager;
+
+import misc.InputEvent;
+
+// drives world from a Replay instead of keyboard, one step() per tick
+// GameScreen calls it from its loop for real time playback, HeadlessRunner calls it as fast as it can
+public class ReplayPlayer {
+
+	private WorldManager world;
+	private Replay replay;
+
+	// position in input log
+	private int offset;
+	private long lastEventTick;
+	private long nextEventTick;
+	private InputEvent nextEvent;
+	private int[] next = new int[1];
+
+	public ReplayPlayer(WorldManager world, Replay replay) {
+		this.world = world;
+		this.replay = replay;
+		world.setTickRate(replay.getTickRate());
+		seek(replay.getStartTick());
+	}
+
+	// restores closest keyframe before tick and steps from there
+	public void seek(long tick) {
+		Replay.Keyframe keyframe = replay.findKeyframe(tick);
+		if (keyframe == null)
+			throw new IllegalStateException("Replay has no keyframe at or before tick " + tick);
+		world.readState(keyframe.getState());
+		offset = keyframe.getLogOffset();
+		lastEventTick = keyframe.getLastEventTick();
+		readNext();
+		while (world.getTick() < tick && !isFinished())
+			step();
+	}
+
+	// one tick: inputs recorded for it, then world update
+	public void step() {
+		while (nextEvent != null && nextEventTick == world.getTick()) {
+			world.applyInput(nextEvent);
+			readNext();
+		}
+		world.update();
+	}
+
+	private void readNext() {
+		if (offset >= replay.getLogLength()) {
+			nextEvent = null;
+			return;
+		}
+		long entry = replay.readVarint(offset, next);
+		offset = next[0];
+		nextEventTick = lastEventTick + Replay.deltaOf(entry);
+		lastEventTick = nextEventTick;
+		nextEvent = Replay.eventOf(entry);
+	}
+
+	public boolean isFinished() {
+		return nextEvent == null && world.getTick() >= replay.getEndTick();
+	}
+
+	public Replay getReplay() {
+		return replay;
+	}
+
+}
@@ -0,0 +1,198 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// whole world into a file and back
+// file is header (magic, version, state length, crc of state) and then bytes of WorldManager.writeState
+// one direct buffer is reused, every field is put straight into it, so saving allocates almost nothing
+// saveLater only copies state on game thread, checksum and disk are done by writer thread
+public class SnapshotManager {
+
+	private static final int MAGIC = 0x44494E53; // "DINS"
+	// bump when writeState of anything changes, older snapshots are then refused instead of read wrong
+	public static final short VERSION = 2;
+	private static final int HEADER_SIZE = 4 + 2 + 4 + 8;
+
+	private WorldManager world;
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(16 * 1024);
+	private CRC32 crc = new CRC32();
+	private long lastSaveNanos = 0;
+	private int lastSize = 0;
+
+	// one thread so saves and deletes of file happen in order they were asked for
+	private ExecutorService writer;
+	private boolean hooked = false;
+	private CRC32 writerCrc = new CRC32();
+
+	public SnapshotManager(WorldManager world) {
+		this.world = world;
+	}
+
+	// header and state in buffer, positioned for writing it out
+	public ByteBuffer capture() {
+		encode();
+		buffer.flip();
+		finish(buffer, crc);
+		return buffer;
+	}
+
+	public void save(File file) throws IOException {
+		long start = System.nanoTime();
+		capture();
+		write(file, buffer);
+		lastSize = buffer.limit();
+		lastSaveNanos = System.nanoTime() - start;
+	}
+
+	// state is copied now, file is written by writer thread, so pausing does not wait for disk
+	// last save time is then only the copy, that is what game thread pays
+	public void saveLater(File file) {
+		long start = System.nanoTime();
+		encode();
+		ByteBuffer copy = ByteBuffer.allocate(buffer.position());
+		buffer.flip();
+		copy.put(buffer);
+		copy.flip();
+		writer().execute(() -> {
+			try {
+				finish(copy, writerCrc);
+				write(file, copy);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		});
+		lastSize = copy.limit();
+		lastSaveNanos = System.nanoTime() - start;
+	}
+
+	// after every save asked for before it, so file written late never comes back
+	public void deleteLater(File file) {
+		writer().execute(() -> file.delete());
+	}
+
+	private synchronized ExecutorService writer() {
+		if (writer == null) {
+			writer = Executors.newSingleThreadExecutor(r -> {
+				Thread thread = new Thread(r, "Snapshot writer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		if (!hooked) {
+			// daemon thread would just die on exit, hook lets it finish pending save
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> close(2000), "Snapshot writer shutdown"));
+			hooked = true;
+		}
+		return writer;
+	}
+
+	// waits until pending saves are written, true if they made it in time
+	// next save starts writer thread again
+	public boolean close(long timeoutMillis) {
+		ExecutorService writer;
+		synchronized (this) {
+			writer = this.writer;
+			this.writer = null;
+		}
+		if (writer == null)
+			return true;
+		writer.shutdown();
+		try {
+			return writer.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	// state after room for header, buffer grows until it fits
+	private void encode() {
+		while (true) {
+			buffer.clear();
+			buffer.position(HEADER_SIZE);
+			try {
+				world.writeState(buffer);
+				return;
+			} catch (BufferOverflowException e) {
+				buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+			}
+		}
+	}
+
+	// header in front of encoded state, snapshot goes from 0 to end of state
+	private static void finish(ByteBuffer snapshot, CRC32 crc) {
+		int length = snapshot.limit() - HEADER_SIZE;
+		snapshot.position(HEADER_SIZE);
+		crc.reset();
+		crc.update(snapshot);
+		snapshot.putInt(0, MAGIC);
+		snapshot.putShort(4, VERSION);
+		snapshot.putInt(6, length);
+		snapshot.putLong(10, crc.getValue());
+		snapshot.position(0);
+	}
+
+	private static void write(File file, ByteBuffer snapshot) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (snapshot.hasRemaining())
+				channel.write(snapshot);
+		}
+	}
+
+	// world is left untouched if file is not a snapshot of this version
+	public void restore(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+				throw new IOException("Not a snapshot: " + file);
+			if (size > buffer.capacity())
+				buffer = ByteBuffer.allocateDirect((int) size);
+			buffer.clear();
+			buffer.limit((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+				;
+			buffer.flip();
+		}
+		restore(buffer);
+	}
+
+	// buffer as made by capture()
+	public void restore(ByteBuffer snapshot) throws IOException {
+		if (snapshot.remaining() < HEADER_SIZE || snapshot.getInt() != MAGIC)
+			throw new IOException("Not a snapshot");
+		short version = snapshot.getShort();
+		if (version != VERSION)
+			throw new IOException("Snapshot version " + version + " is not supported, expected " + VERSION);
+		int length = snapshot.getInt();
+		long checksum = snapshot.getLong();
+		if (snapshot.remaining() < length)
+			throw new IOException("Snapshot is cut off");
+		int start = snapshot.position();
+		snapshot.limit(start + length);
+		crc.reset();
+		crc.update(snapshot);
+		if (crc.getValue() != checksum)
+			throw new IOException("Snapshot is damaged");
+		snapshot.position(start);
+		world.readState(snapshot);
+	}
+
+	public long getLastSaveNanos() {
+		return lastSaveNanos;
+	}
+
+	public int getLastSize() {
+		return lastSize;
+	}
+
+}
@@ -0,0 +1,669 @@
+package manager;
+
+import static user_interface.GameWindow.SCREEN_WIDTH;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import game_object.Clouds;
+import game_object.Dino;
+import game_object.Land;
+import game_object.Score;
+import game_object.Shield;
+import misc.CollisionEvent;
+import misc.ContactType;
+import misc.DinoState;
+import misc.EntityType;
+import misc.FramePhase;
+import misc.GameState;
+import misc.InputEvent;
+import misc.InputState;
+import misc.RandomStream;
+import util.FastRandom;
+import util.InputRing;
+
+// whole game simulation without any Swing in it
+// GameScreen draws it and HeadlessRunner just steps it as fast as it can
+public class WorldManager {
+
+	// Game speed configuration
+	private static final int STARTING_SPEED_X = -5;
+	private static final double DIFFICULTY_INC = -0.0002;
+
+	// Physics constants
+	public static final double GRAVITY = 0.4;
+	public static final int GROUND_Y = 380;
+	public static final double SPEED_Y = -12;
+
+	// game was tuned at 100 ticks per second, every per tick increment is scaled
+	// against this so other tick rates play at the same speed
+	public static final int BASE_TICK_RATE = 100;
+	private static final int SHAKE_TICKS = 50;
+
+	// Shield mechanics
+	public static final int SHIELD_SPAWN_INTERVAL = 10000; // 10 seconds in milliseconds
+
+	private boolean headless;
+
+	// Game variables
+	private double speedX = STARTING_SPEED_X;
+	private GameState gameState = GameState.GAME_STATE_START;
+	private int introCountdown = 1000;
+	private boolean introJump = true;
+	private int shakeDuration = 0;
+
+	// simulated clock, everything that used System.currentTimeMillis now reads this
+	private int tickRate;
+	private long tickNanos;
+	private double tickScale;
+	private long timeNanos = 0;
+	private long tick = 0;
+	private boolean moving = false;
+
+	// Game components
+	private InputState input;
+	private static final InputEvent[] INPUT_EVENTS = InputEvent.values();
+	// key edges from window thread with time they happened, applied at start of next tick
+	// one producer (EDT) and one consumer (thread that calls update)
+	private InputRing pendingInput = new InputRing(256);
+	private volatile Replay recording;
+	private SnapshotManager snapshots;
+	// when set, pausing saves world here and resuming deletes it
+	private File snapshotFile;
+	// reused for every keyframe, grows if world ever does not fit
+	private ByteBuffer stateBuffer = ByteBuffer.allocate(16 * 1024);
+	private ControlsManager cManager;
+	// null unless game loop wants phases timed
+	private FrameProfiler profiler;
+	// null unless input to photon latency is measured
+	private LatencyProbe latencyProbe;
+	private Score score;
+	private Dino dino;
+	private Land land;
+	private Clouds clouds;
+	private EnemyManager eManager;
+	private CoinManager coinManager;
+	private RandomManager random;
+	private EntityStore entities;
+	private CollisionManager collisions;
+	private AudioEngine audio;
+	private int gameOverSound;
+
+	private Shield shield;
+	private long lastShieldSpawnTime;
+
+	private long dayDuration = 30000; // Duration of day in milliseconds
+	private long nightDuration = 30000; // Duration of night in milliseconds
+	private long currentTime = 0; // Current time in the game, in nanoseconds
+	private boolean isDay = true; // Flag to check if it's day or night
+
+	// headless world never plays sounds and never writes best scores
+	public WorldManager(InputState input, boolean headless) {
+		this.input = input;
+		this.headless = headless;
+		setTickRate(BASE_TICK_RATE);
+		// seed of window game is unknown unless setSeed is called, headless runs should always set it
+		random = new RandomManager(System.nanoTime());
+		entities = new EntityStore();
+		snapshots = new SnapshotManager(this);
+		collisions = new CollisionManager(entities);
+		audio = new AudioEngine();
+		if (!headless)
+			audio.start();
+		cManager = new ControlsManager(input, this);
+		score = new Score(this);
+		dino = new Dino(this);
+		land = new Land(this);
+		clouds = new Clouds(this);
+		eManager = new EnemyManager(this);
+		gameOverSound = audio.load("resources/dead.wav");
+
+		shield = new Shield(5); // Shield lasts for 5 seconds
+		coinManager = new CoinManager(this);
+		startGame();
+	}
+
+	// Reset state for new game
+	public void startGame() {
+		shield.reset(); // Reset the shield timer
+		shield.deactivate(); // Ensure shield starts deactivated
+		clearShieldPowerUps();
+		lastShieldSpawnTime = getTime();
+	}
+
+	// ticks per second of simulation, rendering rate is independent of it
+	public void setTickRate(int tickRate) {
+		this.tickRate = tickRate;
+		tickNanos = 1_000_000_000L / tickRate;
+		tickScale = (double) BASE_TICK_RATE / tickRate;
+	}
+
+	// one simulation step: input, clock, game logic
+	public void update() {
+		FrameProfiler profiler = this.profiler;
+		long lap = profiler == null ? 0 : System.nanoTime();
+		LatencyProbe latencyProbe = this.latencyProbe;
+		for (int event; (event = pendingInput.poll()) >= 0;) {
+			if (profiler != null)
+				profiler.recordInputDelay(lap - pendingInput.getLastStamp());
+			// only presses that move dino are followed to screen
+			boolean running = gameState == GameState.GAME_STATE_IN_PROGRESS;
+			if (applyInput(INPUT_EVENTS[event]) && latencyProbe != null && running
+					&& (INPUT_EVENTS[event] == InputEvent.PRESS_UP || INPUT_EVENTS[event] == InputEvent.PRESS_DOWN))
+				latencyProbe.applied(pendingInput.getLastStamp(), System.nanoTime());
+		}
+		if (profiler != null)
+			lap = profiler.lap(FramePhase.INPUT, lap);
+		timeNanos += tickNanos;
+		tick++;
+		if (shakeDuration > 0)
+			shakeDuration--;
+		updateTime();
+		if (profiler != null)
+			lap = profiler.lap(FramePhase.TIME, lap);
+		cManager.update();
+		if (profiler != null)
+			lap = profiler.lap(FramePhase.CONTROLS, lap);
+		moving = gameState == GameState.GAME_STATE_IN_PROGRESS || gameState == GameState.GAME_STATE_INTRO;
+		updateFrame();
+		if (profiler != null)
+			profiler.lap(FramePhase.LOGIC, lap);
+		if (latencyProbe != null)
+			latencyProbe.tickDone();
+		Replay recording = this.recording;
+		if (recording != null && tick % Replay.KEYFRAME_INTERVAL == 0)
+			recording.addKeyframe(tick, saveState());
+	}
+
+	// only from one thread (EDT), event happens before next tick
+	public void queueInput(InputEvent event) {
+		queueInput(event, System.nanoTime());
+	}
+
+	// nanos is System.nanoTime() when key was pressed, false if queue was full
+	public boolean queueInput(InputEvent event, long nanos) {
+		return pendingInput.offer(event.ordinal(), nanos);
+	}
+
+	public InputRing getPendingInput() {
+		return pendingInput;
+	}
+
+	// only from thread that calls update(), everything that reaches simulation from keys goes through here
+	// so recording sees exactly what happened and on which tick, false for key repeat that was ignored
+	public boolean applyInput(InputEvent event) {
+		switch (event) {
+			case PRESS_UP:
+				// key repeat, not an edge
+				if (input.isPressedUp())
+					return false;
+				input.setPressedUp(true);
+				// acts on the edge too, tap released within same tick would be missed by polling
+				pressUpAction();
+				break;
+			case RELEASE_UP:
+				releaseUpAction();
+				input.setPressedUp(false);
+				break;
+			case PRESS_DOWN:
+				if (input.isPressedDown())
+					return false;
+				input.setPressedDown(true);
+				pressDownAction();
+				break;
+			case RELEASE_DOWN:
+				releaseDownAction();
+				input.setPressedDown(false);
+				break;
+			case PAUSE:
+				pressPauseAction();
+				break;
+		}
+		Replay recording = this.recording;
+		if (recording != null)
+			recording.record(tick, event);
+		return true;
+	}
+
+	// records input from now on, starts with keyframe of current state
+	public Replay startRecording() {
+		Replay replay = new Replay(getSeed(), tickRate, tick);
+		replay.addKeyframe(tick, saveState());
+		recording = replay;
+		return replay;
+	}
+
+	public Replay stopRecording() {
+		Replay replay = recording;
+		if (replay != null)
+			replay.setEndTick(tick);
+		recording = null;
+		return replay;
+	}
+
+	public Replay getRecording() {
+		return recording;
+	}
+
+	// whole simulation state as bytes, what keyframes are made of
+	public byte[] saveState() {
+		while (true) {
+			stateBuffer.clear();
+			try {
+				writeState(stateBuffer);
+				break;
+			} catch (BufferOverflowException e) {
+				stateBuffer = ByteBuffer.allocate(stateBuffer.capacity() * 2);
+			}
+		}
+		stateBuffer.flip();
+		byte[] state = new byte[stateBuffer.remaining()];
+		stateBuffer.get(state);
+		return state;
+	}
+
+	public void readState(byte[] state) {
+		readState(ByteBuffer.wrap(state));
+	}
+
+	// order here and in readState must match, anything that changes how world plays goes here
+	public void writeState(ByteBuffer buffer) {
+		buffer.putInt(tickRate);
+		buffer.putLong(timeNanos);
+		buffer.putLong(tick);
+		buffer.putDouble(speedX);
+		buffer.put((byte) gameState.ordinal());
+		buffer.putInt(introCountdown);
+		buffer.put((byte) (introJump ? 1 : 0));
+		buffer.putInt(shakeDuration);
+		buffer.put((byte) (moving ? 1 : 0));
+		buffer.putLong(lastShieldSpawnTime);
+		buffer.putLong(currentTime);
+		buffer.put((byte) (isDay ? 1 : 0));
+		input.writeState(buffer);
+		random.writeState(buffer);
+		score.writeState(buffer);
+		dino.writeState(buffer);
+		land.writeState(buffer);
+		shield.writeState(buffer);
+		eManager.writeState(buffer);
+		coinManager.writeState(buffer);
+		entities.writeState(buffer);
+	}
+
+	public void readState(ByteBuffer buffer) {
+		setTickRate(buffer.getInt());
+		timeNanos = buffer.getLong();
+		tick = buffer.getLong();
+		speedX = buffer.getDouble();
+		gameState = GameState.values()[buffer.get()];
+		introCountdown = buffer.getInt();
+		introJump = buffer.get() != 0;
+		shakeDuration = buffer.getInt();
+		moving = buffer.get() != 0;
+		lastShieldSpawnTime = buffer.getLong();
+		currentTime = buffer.getLong();
+		isDay = buffer.get() != 0;
+		input.readState(buffer);
+		random.readState(buffer);
+		score.readState(buffer);
+		dino.readState(buffer);
+		land.readState(buffer);
+		shield.readState(buffer);
+		eManager.readState(buffer);
+		coinManager.readState(buffer);
+		entities.readState(buffer);
+		pendingInput.clear();
+	}
+
+	// Update logic for all frames
+	private void updateFrame() {
+		switch (gameState) {
+			case GAME_STATE_INTRO:
+				dino.updatePosition();
+				if (!introJump && dino.getDinoState() == DinoState.DINO_RUN)
+					land.updatePosition();
+				entities.update(getScrollX());
+				clouds.updatePosition();
+				introCountdown += getScrollX();
+				if (introCountdown <= 0)
+					gameState = GameState.GAME_STATE_IN_PROGRESS;
+				if (introJump) {
+					dino.jump();
+					dino.setDinoState(DinoState.DINO_JUMP);
+					introJump = false;
+				}
+				break;
+			case GAME_STATE_IN_PROGRESS:
+				speedX += DIFFICULTY_INC * tickScale;
+				dino.updatePosition();
+				land.updatePosition();
+				// one bulk move and cull for every cactus, bird, cloud, coin and pickup
+				entities.update(getScrollX());
+				clouds.updatePosition();
+				eManager.updatePosition();
+				shield.update(getTime());
+				coinManager.update();
+
+				// Spawn shield if enough time passed
+				if (getTime() - lastShieldSpawnTime >= SHIELD_SPAWN_INTERVAL) {
+					spawnShieldPowerUp();
+					lastShieldSpawnTime = getTime();
+				}
+
+				// everything dino touches this tick, pickups first so new shield already protects
+				boolean hitObstacle = false;
+				for (int i = 0, contacts = collisions.detect(dino.getHitbox()); i < contacts; i++) {
+					switch (collisions.getContactType(i)) {
+						case OBSTACLE:
+							hitObstacle = true;
+							break;
+						case COIN:
+							coinManager.collect(collisions.getContactRow(i));
+							collided(ContactType.COIN, false);
+							break;
+						case POWER_UP:
+							shield.activate(getTime());
+							entities.kill(collisions.getContactRow(i));
+							collided(ContactType.POWER_UP, false);
+							break;
+					}
+				}
+
+				// Enemy collision handling
+				if (hitObstacle) {
+					collided(ContactType.OBSTACLE, shield.isActive());
+					if (shield.isActive()) {
+						if (!headless)
+							System.out.println("Shield protected from collision!");
+					} else {
+						gameState = GameState.GAME_STATE_OVER;
+						dino.dinoGameOver();
+						if (!headless)
+							score.writeScore();
+						audio.play(gameOverSound);
+						if (!headless)
+							System.out.println("Collision detected, triggering screen shake.");
+						triggerShake();
+					}
+				}
+
+				score.scoreUp();
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void collided(ContactType contact, boolean shielded) {
+		CollisionEvent event = new CollisionEvent();
+		if (event.isEnabled()) {
+			event.contactType = contact.name();
+			event.shielded = shielded;
+			event.tick = tick;
+			event.score = score.getScore();
+			event.commit();
+		}
+	}
+
+	private void updateTime() {
+		currentTime += tickNanos; // Update current time
+		if (isDay && currentTime >= dayDuration * 1_000_000) {
+			isDay = false; // Switch to night
+			currentTime = 0; // Reset current time
+			if (!headless)
+				System.out.println("Switched to Night");
+		} else if (!isDay && currentTime >= nightDuration * 1_000_000) {
+			isDay = true; // Switch to day
+			currentTime = 0; // Reset current time
+			if (!headless)
+				System.out.println("Switched to Day");
+		}
+	}
+
+	// Create a new shield pickup
+	private void spawnShieldPowerUp() {
+		if (gameState == GameState.GAME_STATE_IN_PROGRESS) {
+			int xPosition = SCREEN_WIDTH + 50;
+			int shieldHeight = 40;
+			int yPosition = GROUND_Y - shieldHeight;
+			int row = entities.spawn(EntityType.SHIELD, xPosition, yPosition, 40, shieldHeight, 0);
+			if (row != -1)
+				entities.setHitbox(row, 0, 0, 40, shieldHeight);
+		}
+	}
+
+	// Start screen shake effect
+	public void triggerShake() {
+		shakeDuration = (int) Math.round(SHAKE_TICKS / tickScale);
+	}
+
+	// Input action: jump
+	public void pressUpAction() {
+		if (gameState == GameState.GAME_STATE_IN_PROGRESS) {
+			dino.jump();
+			dino.setDinoState(DinoState.DINO_JUMP);
+		}
+	}
+
+	// Input action: start game or restart
+	public void releaseUpAction() {
+		if (gameState == GameState.GAME_STATE_START)
+			gameState = GameState.GAME_STATE_INTRO;
+		if (gameState == GameState.GAME_STATE_OVER) {
+			speedX = STARTING_SPEED_X;
+			score.scoreReset();
+			eManager.clearEnemy();
+			dino.resetDino();
+			clouds.clearClouds();
+			land.resetLand();
+			coinManager.resetCoins();
+			resetGame();
+			gameState = GameState.GAME_STATE_IN_PROGRESS;
+		}
+	}
+
+	// Input action: duck
+	public void pressDownAction() {
+		if (dino.getDinoState() != DinoState.DINO_JUMP && gameState == GameState.GAME_STATE_IN_PROGRESS)
+			dino.setDinoState(DinoState.DINO_DOWN_RUN);
+	}
+
+	// Input action: stand up from duck
+	public void releaseDownAction() {
+		if (dino.getDinoState() != DinoState.DINO_JUMP && gameState == GameState.GAME_STATE_IN_PROGRESS)
+			dino.setDinoState(DinoState.DINO_RUN);
+	}
+
+	// Input action: pause/resume game
+	public void pressPauseAction() {
+		if (gameState == GameState.GAME_STATE_IN_PROGRESS) {
+			gameState = GameState.GAME_STATE_PAUSED;
+			saveSnapshot();
+		} else {
+			gameState = GameState.GAME_STATE_IN_PROGRESS;
+			if (snapshotFile != null)
+				snapshots.deleteLater(snapshotFile);
+		}
+	}
+
+	// paused game survives closing the window, restoreSnapshot brings it back on next start
+	public void setSnapshotFile(File snapshotFile) {
+		this.snapshotFile = snapshotFile;
+	}
+
+	private void saveSnapshot() {
+		if (snapshotFile == null)
+			return;
+		snapshots.saveLater(snapshotFile);
+	}
+
+	// true if there was a paused game to continue
+	public boolean restoreSnapshot() {
+		if (snapshotFile == null || !snapshotFile.exists())
+			return false;
+		try {
+			snapshots.restore(snapshotFile);
+			return true;
+		} catch (IOException e) {
+			System.out.println("Could not restore " + snapshotFile + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	// times INPUT, TIME, CONTROLS and LOGIC of every tick into profiler, null stops it
+	public void setProfiler(FrameProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	public FrameProfiler getProfiler() {
+		return profiler;
+	}
+
+	// follows jump and duck presses to screen, null stops it
+	public void setLatencyProbe(LatencyProbe latencyProbe) {
+		this.latencyProbe = latencyProbe;
+	}
+
+	public LatencyProbe getLatencyProbe() {
+		return latencyProbe;
+	}
+
+	public SnapshotManager getSnapshots() {
+		return snapshots;
+	}
+
+	// Reset shield and shake state
+	public void resetGame() {
+		shield.deactivate();
+		shield.reset();
+		clearShieldPowerUps();
+		lastShieldSpawnTime = getTime();
+	}
+
+	private void clearShieldPowerUps() {
+		entities.clear(EntityType.SHIELD);
+	}
+
+	// same seed and same input give same run
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	public long getSeed() {
+		return random.getSeed();
+	}
+
+	public FastRandom getRandom(RandomStream stream) {
+		return random.get(stream);
+	}
+
+	public boolean isHeadless() {
+		return headless;
+	}
+
+	// Get current game state
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	// speed in pixels per base tick (what debug menu shows)
+	public double getSpeedX() {
+		return speedX;
+	}
+
+	// how many pixels ground moves in one tick at current tick rate
+	public double getScrollX() {
+		return speedX * tickScale;
+	}
+
+	// per tick increments multiply by this, 1 at BASE_TICK_RATE
+	public double getTickScale() {
+		return tickScale;
+	}
+
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	public long getTickNanos() {
+		return tickNanos;
+	}
+
+	// simulated time in milliseconds
+	public long getTime() {
+		return timeNanos / 1_000_000;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	// false when world stopped (pause, game over), there is nothing to interpolate then
+	public boolean isMoving() {
+		return moving;
+	}
+
+	public AudioEngine getAudio() {
+		return audio;
+	}
+
+	public InputState getInput() {
+		return input;
+	}
+
+	public int getIntroCountdown() {
+		return introCountdown;
+	}
+
+	public int getShakeDuration() {
+		return shakeDuration;
+	}
+
+	public boolean isDay() {
+		return isDay;
+	}
+
+	public long getTimeUntilNextShield() {
+		return Math.max(0, SHIELD_SPAWN_INTERVAL - (getTime() - lastShieldSpawnTime));
+	}
+
+	public Dino getDino() {
+		return dino;
+	}
+
+	public Score getScore() {
+		return score;
+	}
+
+	public Land getLand() {
+		return land;
+	}
+
+	public Clouds getClouds() {
+		return clouds;
+	}
+
+	public EnemyManager getEnemyManager() {
+		return eManager;
+	}
+
+	public CoinManager getCoinManager() {
+		return coinManager;
+	}
+
+	public CollisionManager getCollisions() {
+		return collisions;
+	}
+
+	public Shield getShield() {
+		return shield;
+	}
+
+	public EntityStore getEntities() {
+		return entities;
+	}
+
+}
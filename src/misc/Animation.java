@@ -1,6 +1,7 @@
 package misc;
 
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,15 +18,26 @@ public class Animation {
 	}
 	
 	// updating sprite every set milliseconds
-	public void updateSprite() {
-		if(System.currentTimeMillis() - lastUpdateTime >= updateTime) {
+	public void updateSprite(long time) {
+		if(time - lastUpdateTime >= updateTime) {
 			currentSpriteIndex++;
 			if(currentSpriteIndex >= sprites.size())
 				currentSpriteIndex = 0;
-			lastUpdateTime = System.currentTimeMillis();
+			lastUpdateTime = time;
 		}
 	}
 	
+	// only timing is state, sprites are loaded again by owner
+	public void writeState(ByteBuffer buffer) {
+		buffer.putInt(currentSpriteIndex);
+		buffer.putLong(lastUpdateTime);
+	}
+	
+	public void readState(ByteBuffer buffer) {
+		currentSpriteIndex = buffer.getInt();
+		lastUpdateTime = buffer.getLong();
+	}
+	
 	public void addSprite(BufferedImage sprite) {
 		sprites.add(sprite);
 	}
@@ -0,0 +1,25 @@
+package misc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// shielded true is hit that shield saved, obstacle hit with false ends game
+@Name("dino.Collision")
+@Label("Collision")
+@Category({ "Dino", "World" })
+public class CollisionEvent extends jdk.jfr.Event {
+
+	@Label("Contact Type")
+	public String contactType;
+
+	@Label("Shielded")
+	public boolean shielded;
+
+	@Label("World Tick")
+	public long tick;
+
+	@Label("Score")
+	public int score;
+
+}
@@ -0,0 +1,7 @@
+package misc;
+
+public enum ContactType {
+	
+	OBSTACLE, COIN, POWER_UP;
+	
+}
@@ -35,11 +35,9 @@ public class Controls {
 	public JLabel pressDebug = new JLabel();
 	public JLabel pressPause = new JLabel();
 	
-	private boolean isPressedUp = false;
-	private boolean isPressedDown = false;
-	
 	GameScreen gameScreen;
 	
+	// actions run on EDT, they only pass key edges on and game thread applies them
 	public Controls(GameScreen gameScreen) {
 		this.gameScreen = gameScreen;
 		// PRESS RELEASE ARROW UP //
@@ -78,19 +76,11 @@ public class Controls {
 		pressPause.getActionMap().put(ESCAPE_PAUSE, new PressPauseAction());
 	}
 	
-	public boolean isPressedUp() {
-		return isPressedUp;
-	}
-
-	public boolean isPressedDown() {
-		return isPressedDown;
-	}
-
 	private class PressUpAction extends AbstractAction {
 		@Override
 		public void actionPerformed(ActionEvent e) {
 //			System.out.println("up");
-			isPressedUp = true;
+			gameScreen.input(InputEvent.PRESS_UP);
 		}
 	}
 	
@@ -98,8 +88,7 @@ public class Controls {
 		@Override
 		public void actionPerformed(ActionEvent e) {
 //			System.out.println("released up");
-			gameScreen.releaseUpAction();
-			isPressedUp = false;
+			gameScreen.input(InputEvent.RELEASE_UP);
 		}
 	}
 	
@@ -107,7 +96,7 @@ public class Controls {
 		@Override
 		public void actionPerformed(ActionEvent e) {
 //			System.out.println("down");
-			isPressedDown = true;
+			gameScreen.input(InputEvent.PRESS_DOWN);
 		}
 	}
 	
@@ -115,8 +104,7 @@ public class Controls {
 		@Override
 		public void actionPerformed(ActionEvent e) {
 //			System.out.println("released down");
-			gameScreen.releaseDownAction();
-			isPressedDown = false;
+			gameScreen.input(InputEvent.RELEASE_DOWN);
 		}
 	}
 	
@@ -132,7 +120,7 @@ public class Controls {
 		@Override
 		public void actionPerformed(ActionEvent e) {
 //			System.out.println("press pause");
-			gameScreen.pressPauseAction();
+			gameScreen.input(InputEvent.PAUSE);
 		}
 	}
 	
@@ -0,0 +1,33 @@
+package misc;
+
+// kinds of rows in EntityStore, speed is part of ground speed the row moves with,
+// contact is what touching it means (null for things dino cant touch)
+// and limit is how many rows of that kind can be alive at once
+public enum EntityType {
+	
+	CACTUS(1, ContactType.OBSTACLE, 32), BIRD(1.2, ContactType.OBSTACLE, 8), CLOUD(1 / 7d, null, 8),
+	COIN(1, ContactType.COIN, 8), SHIELD(1, ContactType.POWER_UP, 4);
+	
+	private final double speed;
+	private final ContactType contact;
+	private final int limit;
+	
+	private EntityType(double speed, ContactType contact, int limit) {
+		this.speed = speed;
+		this.contact = contact;
+		this.limit = limit;
+	}
+	
+	public double getSpeed() {
+		return speed;
+	}
+	
+	public ContactType getContact() {
+		return contact;
+	}
+	
+	public int getLimit() {
+		return limit;
+	}
+	
+}
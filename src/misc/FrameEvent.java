@@ -0,0 +1,27 @@
+package misc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one pass of game loop, from frame start until it is handed to rendering
+@Name("dino.Frame")
+@Label("Frame")
+@Category({ "Dino", "Game Loop" })
+@Description("Ticks simulated and frame rendered or requested by game loop")
+public class FrameEvent extends jdk.jfr.Event {
+
+	@Label("Ticks")
+	public int ticks;
+
+	@Label("World Tick")
+	public long tick;
+
+	@Label("Game State")
+	public String gameState;
+
+	@Label("Active Rendering")
+	public boolean activeRendering;
+
+}
@@ -0,0 +1,9 @@
+package misc;
+
+// parts of game loop that FrameProfiler times
+// INPUT, TIME, CONTROLS and LOGIC are per tick, rest per frame
+public enum FramePhase {
+	
+	INPUT, TIME, CONTROLS, LOGIC, PAINT, SLEEP, FRAME;
+	
+}
@@ -0,0 +1,43 @@
+package misc;
+
+import java.awt.Graphics;
+
+// axis aligned box in plain ints, owned by its entity and moved in place
+// so collision checks never create objects
+public class Hitbox {
+
+	public int x;
+	public int y;
+	public int width;
+	public int height;
+
+	public Hitbox() {
+	}
+
+	public Hitbox(int x, int y, int width, int height) {
+		set(x, y, width, height);
+	}
+
+	public void set(int x, int y, int width, int height) {
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+
+	// same rules as Rectangle.intersects, empty boxes never hit anything
+	public boolean intersects(Hitbox other) {
+		return intersects(x, y, width, height, other.x, other.y, other.width, other.height);
+	}
+
+	public static boolean intersects(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+		if (aw <= 0 || ah <= 0 || bw <= 0 || bh <= 0)
+			return false;
+		return bx < ax + aw && ax < bx + bw && by < ay + ah && ay < by + bh;
+	}
+
+	public void draw(Graphics g) {
+		g.drawRect(x, y, width, height);
+	}
+
+}
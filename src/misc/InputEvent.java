@@ -0,0 +1,8 @@
+package misc;
+
+// key edges that change the simulation, debug key is not here because it only changes drawing
+public enum InputEvent {
+	
+	PRESS_UP, RELEASE_UP, PRESS_DOWN, RELEASE_DOWN, PAUSE;
+	
+}
@@ -0,0 +1,43 @@
+package misc;
+
+import java.nio.ByteBuffer;
+
+// held keys as seen by the simulation, filled by Controls in the window
+// or directly by HeadlessRunner when there is no window at all
+public class InputState {
+
+	private boolean isPressedUp = false;
+	private boolean isPressedDown = false;
+
+	public boolean isPressedUp() {
+		return isPressedUp;
+	}
+
+	public void setPressedUp(boolean isPressedUp) {
+		this.isPressedUp = isPressedUp;
+	}
+
+	public boolean isPressedDown() {
+		return isPressedDown;
+	}
+
+	public void setPressedDown(boolean isPressedDown) {
+		this.isPressedDown = isPressedDown;
+	}
+
+	public void writeState(ByteBuffer buffer) {
+		buffer.put((byte) (isPressedUp ? 1 : 0));
+		buffer.put((byte) (isPressedDown ? 1 : 0));
+	}
+
+	public void readState(ByteBuffer buffer) {
+		isPressedUp = buffer.get() != 0;
+		isPressedDown = buffer.get() != 0;
+	}
+
+	public void reset() {
+		isPressedUp = false;
+		isPressedDown = false;
+	}
+
+}
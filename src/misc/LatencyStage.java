@@ -0,0 +1,10 @@
+package misc;
+
+// where time goes between key press and frame showing what it did
+// QUEUE key to tick that applies it, TICK rest of that tick, PUBLISH tick end to snapshot for rendering,
+// PRESENT snapshot to frame painted (or shown with active rendering), TOTAL key to frame
+public enum LatencyStage {
+	
+	QUEUE, TICK, PUBLISH, PRESENT, TOTAL;
+	
+}
@@ -0,0 +1,7 @@
+package misc;
+
+public enum RandomStream {
+	
+	ENEMIES, COINS, CLOUDS;
+	
+}
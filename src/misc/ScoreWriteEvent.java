@@ -0,0 +1,22 @@
+package misc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// one batch written to score file by ScoreWriter, duration is whole write including fsync
+@Name("dino.ScoreWrite")
+@Label("Score Write")
+@Category({ "Dino", "I/O" })
+public class ScoreWriteEvent extends jdk.jfr.Event {
+
+	@Label("Records")
+	public int records;
+
+	@Label("Sync Policy")
+	public String syncPolicy;
+
+	@Label("Failed")
+	public boolean failed;
+
+}
@@ -0,0 +1,18 @@
+package misc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("dino.Sound")
+@Label("Sound Play")
+@Category({ "Dino", "Audio" })
+public class SoundEvent extends jdk.jfr.Event {
+
+	@Label("Sound Id")
+	public int soundId;
+
+	@Label("Dropped")
+	public boolean dropped;
+
+}
@@ -0,0 +1,21 @@
+package misc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("dino.Spawn")
+@Label("Enemy Spawn")
+@Category({ "Dino", "World" })
+public class SpawnEvent extends jdk.jfr.Event {
+
+	@Label("Enemy Type")
+	public String enemyType;
+
+	@Label("World Tick")
+	public long tick;
+
+	@Label("Distance Between Enemies")
+	public double distance;
+
+}
@@ -0,0 +1,8 @@
+package misc;
+
+// when ScoreWriter forces written scores to disk
+public enum SyncPolicy {
+	
+	NEVER, PER_BATCH, PER_RECORD;
+	
+}
@@ -2,92 +2,120 @@ package user_interface;
 
 import static user_interface.GameWindow.SCREEN_HEIGHT;
 import static user_interface.GameWindow.SCREEN_WIDTH;
-import static util.Resource.getImage;
+import static manager.WorldManager.GROUND_Y;
+import static util.Atlas.getRegion;
 
 import java.awt.AlphaComposite;
+import java.awt.Canvas;
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
 import javax.swing.JPanel;
 
-import game_object.Clouds;
-import game_object.Dino;
-import game_object.Land;
-import game_object.Score;
-import manager.CoinManager;
-import manager.ControlsManager;
-import manager.EnemyManager;
-import manager.SoundManager;
+import manager.EntityStore;
+import manager.FrameProfiler;
+import manager.LatencyProbe;
+import manager.RenderSnapshot;
+import manager.ReplayPlayer;
+import manager.WorldManager;
 import misc.Controls;
-import misc.DinoState;
+import misc.EntityType;
+import misc.FrameEvent;
+import misc.FramePhase;
 import misc.GameState;
-import game_object.Shield;
-import game_object.Block;
-
-import java.util.ArrayList;
-import java.util.Iterator;
+import misc.Hitbox;
+import misc.InputEvent;
+import misc.InputState;
+import misc.LatencyStage;
+import util.AtlasRegion;
+import util.FastRandom;
+import util.LatencyHistogram;
+import util.Resource;
+import util.ScaledImageCache;
+import util.TripleBuffer;
 
 @SuppressWarnings(value = { "serial" })
 public class GameScreen extends JPanel implements Runnable {
 
 	// Game loop thread
 	private Thread thread;
-	private Shield shield;
-
-	// Game speed configuration
-	private static final int STARTING_SPEED_X = -5;
-	private static final double DIFFICULTY_INC = -0.0002;
-
-	// Physics constants
-	public static final double GRAVITY = 0.4;
-	public static final int GROUND_Y = 380;
-	public static final double SPEED_Y = -12;
-
-	// Frame rate config
-	private final int FPS = 100;
-	private final int NS_PER_FRAME = 1_000_000_000 / FPS;
-
-	// Game variables
-	private double speedX = STARTING_SPEED_X;
-	private GameState gameState = GameState.GAME_STATE_START;
-	private int introCountdown = 1000;
-	private boolean introJump = true;
+
+	// Frame rate config, simulation runs at its own tick rate in WorldManager
+	private static final int DEFAULT_FPS = 100;
+	// most ticks simulated before one render, rest of backlog is dropped
+	private static final int MAX_TICKS_PER_FRAME = 5;
+	private int fps;
+	private long nsPerFrame;
+
+	private static final Color DAY_SKY = new Color(246, 246, 246);
+	private static final Color NIGHT_SKY = new Color(0, 1, 3);
+	private static final Color SHIELD_BUBBLE = new Color(0, 150, 255, 80);
+	// opaque on purpose, translucent fill goes through java2d mask blend that allocates ~5KB every call
+	private static final Color GRAPH_BACKGROUND = new Color(190, 190, 190);
+	private static final Color GRAPH_OK = new Color(60, 179, 113);
+	private static final int GRAPH_HEIGHT = 60;
+	// debug overlay text position and line height
+	private static final int DEBUG_X = SCREEN_WIDTH / 100;
+	private static final int DEBUG_LINE = SCREEN_HEIGHT / 25;
+	// intro text fade, AlphaComposite.getInstance allocates so all steps are made once
+	private static final AlphaComposite[] INTRO_FADE = new AlphaComposite[256];
+	static {
+		for (int i = 0; i < INTRO_FADE.length; i++)
+			INTRO_FADE[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / 255f);
+	}
+
 	private boolean showHitboxes = false;
 	private boolean collisions = true;
+	private int shakeIntensity = 20; // pixels to shake
+
+	// active rendering: loop thread draws into canvas buffers and shows them itself
+	// null canvas means old way, repaint() and paintComponent on EDT
+	// volatile because loop thread drops it when buffers cant be made and EDT has to see that
+	private volatile Canvas canvas;
+	private BufferStrategy bufferStrategy;
+	private long framesPresented = 0;
+	private long lastPresentNanos = 0;
+	private long maxPresentNanos = 0;
 
 	// Game components
 	private Controls controls;
-	private Score score;
-	private Dino dino;
-	private Land land;
-	private Clouds clouds;
-	private EnemyManager eManager;
-	private SoundManager gameOverSound;
-	private ControlsManager cManager;
-	private int shakeDuration = 0;
-	private int shakeIntensity = 20; // pixels to shake
-
-	// Shield mechanics
-	private static final int SHIELD_SPAWN_INTERVAL = 10000; // 20 seconds in milliseconds
-	private long lastShieldSpawnTime;
-	private BufferedImage shieldImg;
-	private ArrayList<Block> shieldPowerUps;
-
-	private CoinManager coinManager;
-	private long dayDuration = 30000; // Duration of day in milliseconds
-	private long nightDuration = 30000; // Duration of night in milliseconds
-	private long currentTime = 0; // Current time in the game
-	private boolean isDay = true; // Flag to check if it's day or night
-	private long lastFrameTime; // Variable to store the last frame time
-	private BufferedImage sunImg;
-	private BufferedImage moonImg;
+	private HudRenderer hud = new HudRenderer();
+	private FrameProfiler profiler = new FrameProfiler();
+	// every debug line is built here and drawn from char buffer, overlay makes no garbage while it measures
+	private StringBuilder debugText = new StringBuilder(256);
+	private char[] debugChars = new char[256];
+	// loop thread fills and publishes, EDT (or loop itself with active rendering) draws newest one
+	private TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<RenderSnapshot>(new RenderSnapshot(),
+			new RenderSnapshot(), new RenderSnapshot());
+	private WorldManager world;
+
+	private AtlasRegion sunImg;
+	private AtlasRegion moonImg;
+	private AtlasRegion introImage;
+	private AtlasRegion gameOverImage;
+	private AtlasRegion replayImage;
+	private AtlasRegion pausedImage;
+	private AtlasRegion shieldImage;
+	// screen shake, render thread only, seeded again from snapshot whenever run seed changes
+	private FastRandom fx = new FastRandom(0);
+	private long fxSeed;
+	private boolean fxSeeded = false;
+	private volatile ReplayPlayer replay;
 
 	// Constructor: initialize game objects and input
 	public GameScreen() {
+		this(false);
+	}
+
+	public GameScreen(boolean activeRendering) {
 		thread = new Thread(this);
+		setRenderRate(DEFAULT_FPS);
+		world = new WorldManager(new InputState(), false);
+		world.setProfiler(profiler);
+		publishSnapshot(1);
 		controls = new Controls(this);
 		super.add(controls.pressUp);
 		super.add(controls.releaseUp);
@@ -95,26 +123,25 @@ public class GameScreen extends JPanel implements Runnable {
 		super.add(controls.releaseDown);
 		super.add(controls.pressDebug);
 		super.add(controls.pressPause);
-		cManager = new ControlsManager(controls, this);
-		score = new Score(this);
-		dino = new Dino(controls);
-		land = new Land(this);
-		clouds = new Clouds(this);
-		eManager = new EnemyManager(this);
-		gameOverSound = new SoundManager("resources/dead.wav");
-		gameOverSound.startThread();
-
-		// Initialize shield-related objects
-		shield = new Shield(5); // Shield lasts for 5 seconds
-		shieldPowerUps = new ArrayList<>();
-		shieldImg = getImage("resources/shield.png");
-		sunImg = getImage("resources/sun.png"); // Load sun image
-		moonImg = getImage("resources/moon.png"); // Load moon image
-
-		lastShieldSpawnTime = System.currentTimeMillis();
-		coinManager = new CoinManager(this);
-		lastFrameTime = System.currentTimeMillis();
-		startGame(); // Initialize game state properly
+
+		if (activeRendering) {
+			// labels only carry key bindings so they dont need any space
+			setLayout(null);
+			canvas = new Canvas();
+			canvas.setBounds(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+			canvas.setIgnoreRepaint(true);
+			// keys are bound to this panel's window, canvas must not steal focus
+			canvas.setFocusable(false);
+			super.add(canvas);
+		}
+
+		sunImg = getRegion("sun"); // Load sun image
+		moonImg = getRegion("moon"); // Load moon image
+		introImage = getRegion("intro-text");
+		gameOverImage = getRegion("game-over");
+		replayImage = getRegion("replay");
+		pausedImage = getRegion("paused");
+		shieldImage = getRegion("shield");
 	}
 
 	// Start game loop thread
@@ -124,79 +151,202 @@ public class GameScreen extends JPanel implements Runnable {
 
 	// Reset state for new game
 	public void startGame() {
-		if (shield != null) {
-			shield.reset(); // Reset the shield timer
-			shield.deactivate(); // Ensure shield starts deactivated
-		}
-		shieldPowerUps.clear();
-		lastShieldSpawnTime = System.currentTimeMillis();
+		world.startGame();
+	}
+
+	// frames per second of rendering, independent of simulation tick rate
+	public void setRenderRate(int fps) {
+		this.fps = fps;
+		nsPerFrame = 1_000_000_000L / fps;
+	}
+
+	public int getRenderRate() {
+		return fps;
 	}
 
-	// Game loop
+	// Game loop: fixed timestep simulation, rendering as often as fps allows
 	@Override
 	public void run() {
 		long prevFrameTime = System.nanoTime();
-		int waitingTime = 0;
+		long accumulator = 0;
 		while (true) {
-			updateTime();
-			cManager.update();
-			updateFrame(); // Game logic
-			repaint(); // Render
-			lastFrameTime = System.currentTimeMillis();
-			waitingTime = (int) ((NS_PER_FRAME - (System.nanoTime() - prevFrameTime)) / 1_000_000);
-			if (waitingTime < 0)
-				waitingTime = 1;
-			SoundManager.WAITING_TIME = waitingTime;
-
-			// Add delay after game over
-			if (gameState == GameState.GAME_STATE_OVER)
-				waitingTime = 1000;
-			try {
-				Thread.sleep(waitingTime);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+			long frameStart = System.nanoTime();
+			FrameEvent frameEvent = new FrameEvent();
+			frameEvent.begin();
+			accumulator += frameStart - prevFrameTime;
+			profiler.record(FramePhase.FRAME, frameStart - prevFrameTime);
+			prevFrameTime = frameStart;
+
+			long tickNanos = world.getTickNanos();
+			int ticks = 0;
+			while (accumulator >= tickNanos && ticks < MAX_TICKS_PER_FRAME) {
+				ReplayPlayer replay = this.replay;
+				if (replay == null)
+					world.update(); // Game logic
+				else if (replay.isFinished())
+					this.replay = null; // keys take over where recording ended
+				else
+					replay.step();
+				accumulator -= tickNanos;
+				ticks++;
+			}
+			profiler.setTicksBehind(accumulator / tickNanos);
+			// way behind (debugger, slow box), forget about it instead of catching up forever
+			if (accumulator >= tickNanos) {
+				profiler.dropTicks(accumulator / tickNanos);
+				accumulator %= tickNanos;
+			}
+			publishSnapshot((double) accumulator / tickNanos);
+			if (!renderActive())
+				repaint(); // Render on EDT
+			frameEvent.end();
+			if (frameEvent.shouldCommit()) {
+				frameEvent.ticks = ticks;
+				frameEvent.tick = world.getTick();
+				frameEvent.gameState = world.getGameState().name();
+				frameEvent.activeRendering = isActiveRendering();
+				frameEvent.commit();
+			}
+
+			long waitingTime = nsPerFrame - (System.nanoTime() - frameStart);
+
+			// Add delay after game over, it is not simulated time so accumulator skips it
+			if (world.getGameState() == GameState.GAME_STATE_OVER) {
+				try {
+					Thread.sleep(1000);
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+				prevFrameTime = System.nanoTime();
+			} else if (waitingTime > 0) {
+				long sleepStart = System.nanoTime();
+				LockSupport.parkNanos(waitingTime);
+				profiler.lap(FramePhase.SLEEP, sleepStart);
 			}
-			prevFrameTime = System.nanoTime();
 		}
 	}
 
-	// Get current speed
-	public double getSpeedX() {
-		return speedX;
+	public WorldManager getWorld() {
+		return world;
+	}
+
+	// copies world for next render, only from thread that updates world
+	// game loop does it every frame, call it after stepping world by hand
+	public void publishSnapshot(double interpolation) {
+		snapshots.getBack().capture(world, interpolation);
+		snapshots.publish();
+	}
+
+	// input to photon mode, stages of every jump and duck press are shown in debug overlay
+	public void measureLatency() {
+		world.setLatencyProbe(new LatencyProbe());
 	}
 
-	// Get current game state
-	public GameState getGameState() {
-		return gameState;
+	public FrameProfiler getProfiler() {
+		return profiler;
 	}
 
-	// Get dino reference
-	public Dino getDino() {
-		return dino;
+	// world plays given replay in real time instead of listening to keys
+	public void setReplay(ReplayPlayer replay) {
+		this.replay = replay;
 	}
 
 	int sunX = SCREEN_WIDTH - 200;
 	int sunY = 50;
 	int moonX = SCREEN_WIDTH - 200;
 	int moonY = 50;
-	// Render the screen
+
+	// draws and presents frame from loop thread, false if active rendering is not available
+	private boolean renderActive() {
+		if (canvas == null)
+			return false;
+		if (bufferStrategy == null) {
+			// buffers can be created only after window is shown
+			if (!canvas.isDisplayable())
+				return false;
+			try {
+				canvas.createBufferStrategy(2);
+			} catch (IllegalStateException e) {
+				e.printStackTrace();
+				canvas = null;
+				return false;
+			}
+			bufferStrategy = canvas.getBufferStrategy();
+		}
+		RenderSnapshot drawn;
+		do {
+			do {
+				Graphics g = bufferStrategy.getDrawGraphics();
+				try {
+					drawn = render(g);
+				} finally {
+					g.dispose();
+				}
+			} while (bufferStrategy.contentsRestored());
+			long presentStart = System.nanoTime();
+			bufferStrategy.show();
+			Toolkit.getDefaultToolkit().sync();
+			lastPresentNanos = System.nanoTime() - presentStart;
+		} while (bufferStrategy.contentsLost());
+		framesPresented++;
+		if (lastPresentNanos > maxPresentNanos)
+			maxPresentNanos = lastPresentNanos;
+		LatencyProbe latencyProbe = world.getLatencyProbe();
+		if (latencyProbe != null)
+			latencyProbe.presented(drawn, System.nanoTime());
+		return true;
+	}
+
+	public boolean isActiveRendering() {
+		return canvas != null;
+	}
+
+	public long getFramesPresented() {
+		return framesPresented;
+	}
+
+	// how long last bufferStrategy.show() took, only for active rendering
+	public long getLastPresentNanos() {
+		return lastPresentNanos;
+	}
+
+	public long getMaxPresentNanos() {
+		return maxPresentNanos;
+	}
 
 	@Override
 	public void paintComponent(Graphics g) {
 		super.paintComponent(g);
-		if (isDay) {
-			g.setColor(new Color(246, 246, 246)); // Sky blue for day
+		// with active rendering loop thread is the only one drawing, canvas covers panel anyway
+		// second reader would swap triple buffer front under it
+		if (canvas != null)
+			return;
+		RenderSnapshot drawn = render(g);
+		// swing copies its back buffer to screen right after paint, closest point we can see
+		LatencyProbe latencyProbe = world.getLatencyProbe();
+		if (latencyProbe != null)
+			latencyProbe.presented(drawn, System.nanoTime());
+	}
+
+	// Render the screen, same for paintComponent and active rendering
+	// draws only from newest snapshot, never from world itself, returns snapshot it drew
+	// only one thread may call it, EDT without canvas or loop thread with it
+	private RenderSnapshot render(Graphics g) {
+		long paintStart = System.nanoTime();
+		RenderSnapshot snapshot = snapshots.getFront();
+		if (snapshot.isDay()) {
+			g.setColor(DAY_SKY); // Sky blue for day
 		} else {
-			g.setColor(new Color(0, 1, 3)); // Dark blue for night
+			g.setColor(NIGHT_SKY); // Dark blue for night
 		}
 
 		g.fillRect(0, 0, getWidth(), getHeight()); // Fill background FIRST
 
 		// Now draw the sun or moon
-		if (isDay) {
-			g.drawImage(sunImg, sunX, sunY, 100, 100, null); // Draw sun
+		if (snapshot.isDay()) {
+			ScaledImageCache.draw(g, sunImg, sunX, sunY, 100, 100, ScaledImageCache.SMOOTH); // Draw sun
 		} else {
-			g.drawImage(moonImg, moonX, moonY, 100, 100, null); // Draw moon
+			ScaledImageCache.draw(g, moonImg, moonX, moonY, 100, 100, ScaledImageCache.SMOOTH); // Draw moon
 		}
 
 		// // Screen shake effect
@@ -204,13 +354,20 @@ public class GameScreen extends JPanel implements Runnable {
 		int offsetY = 0;
 
 		// // Apply shake if needed
-		if (gameState == GameState.GAME_STATE_IN_PROGRESS && shakeDuration > 0) {
-			offsetX = (int) (Math.random() * shakeIntensity - shakeIntensity / 2);
-			offsetY = (int) (Math.random() * shakeIntensity - shakeIntensity / 2);
-			shakeDuration--;
+		if (snapshot.getGameState() == GameState.GAME_STATE_IN_PROGRESS && snapshot.getShakeDuration() > 0) {
+			// own generator, world streams are world state and only game thread may touch them
+			// how many frames were drawn must not change snapshots or replays
+			if (!fxSeeded || snapshot.getSeed() != fxSeed) {
+				fxSeed = snapshot.getSeed();
+				fx.setSeed(FastRandom.mix(~fxSeed));
+				fxSeeded = true;
+			}
+			offsetX = (int) (fx.nextDouble() * shakeIntensity - shakeIntensity / 2);
+			offsetY = (int) (fx.nextDouble() * shakeIntensity - shakeIntensity / 2);
 		}
 
-		Graphics2D g2 = (Graphics2D) g.create();
+		// translate there and back instead of g.create(), no new Graphics every frame
+		Graphics2D g2 = (Graphics2D) g;
 		g2.translate(offsetX, offsetY);
 
 		// Draw background
@@ -218,142 +375,165 @@ public class GameScreen extends JPanel implements Runnable {
 		// g2.fillRect(0, 0, getWidth(), getHeight());
 
 		// Render based on game state
-		switch (gameState) {
+		switch (snapshot.getGameState()) {
 			case GameState.GAME_STATE_START:
-				startScreen(g2);
+				startScreen(g2, snapshot);
 				break;
 			case GameState.GAME_STATE_INTRO:
-				introScreen(g2);
+				introScreen(g2, snapshot);
 				break;
 			case GameState.GAME_STATE_IN_PROGRESS:
-				inProgressScreen(g2);
+				inProgressScreen(g2, snapshot);
 				break;
 			case GameState.GAME_STATE_OVER:
-				gameOverScreen(g2);
+				gameOverScreen(g2, snapshot);
 				break;
 			case GameState.GAME_STATE_PAUSED:
-				pausedScreen(g2);
+				pausedScreen(g2, snapshot);
 				break;
 			default:
 				break;
 		}
-		g2.dispose();
-	}
-
-	// // Start screen shake effect
-	public void triggerShake() {
-		shakeDuration = 50;
-	}
-
-	// Update logic for all frames
-	private void updateFrame() {
-		switch (gameState) {
-			case GAME_STATE_INTRO:
-				dino.updatePosition();
-				if (!introJump && dino.getDinoState() == DinoState.DINO_RUN)
-					land.updatePosition();
-				clouds.updatePosition();
-				introCountdown += speedX;
-				if (introCountdown <= 0)
-					gameState = GameState.GAME_STATE_IN_PROGRESS;
-				if (introJump) {
-					dino.jump();
-					dino.setDinoState(DinoState.DINO_JUMP);
-					introJump = false;
-				}
-				break;
-			case GAME_STATE_IN_PROGRESS:
-				// System.out.println("Coins: " + coinManager.getCoinCount() + ", Active coins:
-				// " + coinManager.getActiveCoins());
-
-				speedX += DIFFICULTY_INC;
-				dino.updatePosition();
-				land.updatePosition();
-				clouds.updatePosition();
-				eManager.updatePosition();
-				shield.update();
-				coinManager.update();
-
-				// Handle shield power-ups
-				for (Iterator<Block> iterator = shieldPowerUps.iterator(); iterator.hasNext();) {
-					Block shieldPU = iterator.next();
-					shieldPU.x += speedX;
-
-					// Collision detection
-					if (dino.getHitbox()
-							.intersects(new Rectangle((int) shieldPU.x, shieldPU.y, shieldPU.width, shieldPU.height))) {
-						shield.activate();
-						iterator.remove();
-					} else if (shieldPU.x + shieldPU.width < 0) {
-						iterator.remove();
-					}
-				}
+		g2.translate(-offsetX, -offsetY);
+		profiler.lap(FramePhase.PAINT, paintStart);
+		return snapshot;
+	}
 
-				// Spawn shield if enough time passed
-				if (System.currentTimeMillis() - lastShieldSpawnTime >= SHIELD_SPAWN_INTERVAL) {
-					spawnShieldPowerUp();
-					lastShieldSpawnTime = System.currentTimeMillis();
-				}
+	// Draw debug lines and hitboxes
+	private void drawDebugMenu(Graphics g, RenderSnapshot snapshot) {
+		g.setColor(Color.RED);
+		g.drawLine(0, GROUND_Y, getWidth(), GROUND_Y);
+		world.getDino().drawHitbox(g, snapshot);
+		world.getEnemyManager().drawHitbox(g, snapshot.getEntities());
+		world.getCoinManager().drawHitbox(g, snapshot.getEntities());
+		StringBuilder sb = debugText;
+		appendThousandths(sb.append("SPEED_X: "), Math.round(snapshot.getSpeedX() * 1000D));
+		drawDebugLine(g, 1);
+		if (isActiveRendering()) {
+			appendMillis(sb.append("PRESENT: "), lastPresentNanos).append(" ms (max ");
+			appendMillis(sb, maxPresentNanos).append(" ms)");
+			drawDebugLine(g, 2);
+		}
+		sb.append("IMAGES: ").append(Resource.getCachedImageCount()).append(" cached, ").append(Resource.getImageHits())
+				.append(" hits, ").append(Resource.getImageMisses()).append(" misses, ")
+				.append(Resource.getImageBytes() / 1024).append(" KB");
+		drawDebugLine(g, 3);
+		sb.append("SCALED: ").append(ScaledImageCache.getHits()).append(" hits, ").append(ScaledImageCache.getMisses())
+				.append(" misses, ").append(ScaledImageCache.getBytes() / 1024).append(" KB");
+		drawDebugLine(g, 4);
+		EntityStore entities = snapshot.getEntities();
+		sb.append("POOL:");
+		for (EntityType type : EntityType.values())
+			sb.append(' ').append(type).append(' ').append(entities.count(type)).append('/')
+					.append(entities.getLimit(type)).append(" peak ").append(entities.getPeak(type)).append(" miss ")
+					.append(entities.getMisses(type));
+		drawDebugLine(g, 5);
+		// per tick phases first, then per frame, all in ms
+		int line = 6;
+		for (FramePhase phase : FramePhase.values()) {
+			LatencyHistogram h = profiler.get(phase);
+			appendMillis(sb.append(phase).append(": p50 "), h.getPercentile(50));
+			appendMillis(sb.append(" p99 "), h.getPercentile(99));
+			appendMillis(sb.append(" p99.9 "), h.getPercentile(99.9));
+			appendMillis(sb.append(" max "), h.getMax()).append(" n ").append(h.getCount());
+			drawDebugLine(g, line++);
+		}
+		LatencyHistogram delay = profiler.getInputDelay();
+		appendMillis(sb.append("INPUT DELAY: p50 "), delay.getPercentile(50));
+		appendMillis(sb.append(" p99 "), delay.getPercentile(99));
+		appendMillis(sb.append(" max "), delay.getMax()).append(" n ").append(delay.getCount()).append(" queued ")
+				.append(world.getPendingInput().size()).append(" dropped ").append(world.getPendingInput().getDropped());
+		drawDebugLine(g, line++);
+		LatencyProbe latencyProbe = world.getLatencyProbe();
+		if (latencyProbe != null) {
+			// stages in one line per quantile, screen has no room for line per stage
+			sb.append("LATENCY p50:");
+			for (LatencyStage stage : LatencyStage.values())
+				appendMillis(sb.append(' ').append(stage).append(' '), latencyProbe.get(stage).getPercentile(50));
+			sb.append(" n ").append(latencyProbe.get(LatencyStage.TOTAL).getCount());
+			drawDebugLine(g, line++);
+			sb.append("LATENCY p99:");
+			for (LatencyStage stage : LatencyStage.values())
+				appendMillis(sb.append(' ').append(stage).append(' '), latencyProbe.get(stage).getPercentile(99));
+			appendMillis(sb.append(" max "), latencyProbe.get(LatencyStage.TOTAL).getMax());
+			drawDebugLine(g, line++);
+		}
+		drawFrameGraph(g, DEBUG_X, DEBUG_LINE * line);
+	}
 
-				// Enemy collision handling
-				if (eManager.isCollision(dino.getHitbox())) {
-					if (shield.isActive()) {
-						System.out.println("Shield protected from collision!");
-					} else {
-						gameState = GameState.GAME_STATE_OVER;
-						dino.dinoGameOver();
-						score.writeScore();
-						gameOverSound.play();
-						System.out.println("Collision detected, triggering screen shake.");
-						triggerShake();
-					}
-				}
+	// draws what is in debugText as given line of overlay and empties it
+	private void drawDebugLine(Graphics g, int line) {
+		int length = debugText.length();
+		if (debugChars.length < length)
+			debugChars = new char[length * 2];
+		debugText.getChars(0, length, debugChars, 0);
+		g.drawChars(debugChars, 0, length, DEBUG_X, DEBUG_LINE * line);
+		debugText.setLength(0);
+	}
 
-				score.scoreUp();
-				break;
-			default:
-				break;
+	// value / 1000 with three decimals, string concat of double would allocate every frame
+	private static StringBuilder appendThousandths(StringBuilder sb, long value) {
+		if (value < 0) {
+			sb.append('-');
+			value = -value;
 		}
+		long fraction = value % 1000;
+		sb.append(value / 1000).append('.');
+		if (fraction < 100)
+			sb.append('0');
+		if (fraction < 10)
+			sb.append('0');
+		return sb.append(fraction);
 	}
 
-	// Draw debug lines and hitboxes
-	private void drawDebugMenu(Graphics g) {
+	private static StringBuilder appendMillis(StringBuilder sb, long nanos) {
+		return appendThousandths(sb, (nanos + 500) / 1000);
+	}
+
+	// last frames as bars, full height is two frame budgets, red ones missed budget
+	private void drawFrameGraph(Graphics g, int x, int y) {
+		g.setColor(GRAPH_BACKGROUND);
+		g.fillRect(x, y, FrameProfiler.GRAPH_SIZE, GRAPH_HEIGHT);
+		for (int i = 0; i < FrameProfiler.GRAPH_SIZE; i++) {
+			long frame = profiler.getGraph(i);
+			int height = (int) Math.min(GRAPH_HEIGHT, frame * GRAPH_HEIGHT / (nsPerFrame * 2));
+			g.setColor(frame > nsPerFrame + nsPerFrame / 10 ? Color.RED : GRAPH_OK);
+			g.fillRect(x + i, y + GRAPH_HEIGHT - height, 1, height);
+		}
+		// budget line
 		g.setColor(Color.RED);
-		g.drawLine(0, GROUND_Y, getWidth(), GROUND_Y);
-		dino.drawHitbox(g);
-		eManager.drawHitbox(g);
-		coinManager.drawHitbox(g);
-		String speedInfo = "SPEED_X: " + String.valueOf(Math.round(speedX * 1000D) / 1000D);
-		g.drawString(speedInfo, (int) (SCREEN_WIDTH / 100), (int) (SCREEN_HEIGHT / 25));
+		g.drawLine(x, y + GRAPH_HEIGHT / 2, x + FrameProfiler.GRAPH_SIZE, y + GRAPH_HEIGHT / 2);
 	}
 
 	// Start screen rendering
-	private void startScreen(Graphics g) {
-		land.draw(g);
-		dino.draw(g);
-		BufferedImage introImage = getImage("resources/intro-text.png");
+	private void startScreen(Graphics g, RenderSnapshot snapshot) {
+		world.getLand().draw(g, snapshot);
+		world.getDino().draw(g, snapshot);
 		Graphics2D g2d = (Graphics2D) g;
-		g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, introCountdown / 1000f));
-		g2d.drawImage(introImage, SCREEN_WIDTH / 2 - introImage.getWidth() / 2, SCREEN_HEIGHT / 2 - introImage.getHeight(),
-				null);
-		g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
+		int fade = Math.max(0, Math.min(255, snapshot.getIntroCountdown() * 255 / 1000));
+		g2d.setComposite(INTRO_FADE[fade]);
+		introImage.draw(g2d, SCREEN_WIDTH / 2 - introImage.getWidth() / 2, SCREEN_HEIGHT / 2 - introImage.getHeight());
+		g2d.setComposite(INTRO_FADE[255]);
 	}
 
 	// Intro screen rendering
-	private void introScreen(Graphics g) {
-		clouds.draw(g);
-		startScreen(g);
+	private void introScreen(Graphics g, RenderSnapshot snapshot) {
+		world.getClouds().draw(g, snapshot);
+		startScreen(g, snapshot);
 	}
 
 	// Main game rendering during active play
-	private void inProgressScreen(Graphics g) {
-		clouds.draw(g);
-		land.draw(g);
-		eManager.draw(g);
+	private void inProgressScreen(Graphics g, RenderSnapshot snapshot) {
+		world.getClouds().draw(g, snapshot);
+		world.getLand().draw(g, snapshot);
+		world.getEnemyManager().draw(g, snapshot);
 
 		// Draw power-ups
-		for (Block shieldPU : shieldPowerUps) {
-			g.drawImage(shieldPU.img, (int) shieldPU.x, shieldPU.y, shieldPU.width, shieldPU.height, null);
+		EntityStore entities = snapshot.getEntities();
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.is(i, EntityType.SHIELD))
+				ScaledImageCache.draw(g, shieldImage, (int) snapshot.interpolate(entities.getPrevX(i), entities.getX(i)),
+						entities.getY(i), entities.getWidth(i), entities.getHeight(i), ScaledImageCache.SMOOTH);
 		}
 
 		// // Shield effect
@@ -365,11 +545,11 @@ public class GameScreen extends JPanel implements Runnable {
 		// + 20);
 		// }
 
-		if (shield.isActive()) {
+		if (snapshot.isShieldActive()) {
 			Graphics2D g2d = (Graphics2D) g;
-			g2d.setColor(new Color(0, 150, 255, 80));
+			g2d.setColor(SHIELD_BUBBLE);
 
-			Rectangle dinoBox = dino.getHitbox();
+			Hitbox dinoBox = snapshot.getDinoHitbox();
 
 			// Calculate center of dino
 			int centerX = dinoBox.x + dinoBox.width / 2;
@@ -386,82 +566,36 @@ public class GameScreen extends JPanel implements Runnable {
 			g2d.fillOval(ovalX, ovalY, ovalWidth, ovalHeight);
 		}
 
-		coinManager.draw(g);
-		dino.draw(g);
-		score.draw(g);
-
-		// Shield timer
-		if (shield.isActive()) {
-			g.setColor(new Color(0, 150, 255));
-			g.setFont(new Font("Arial", Font.BOLD, 14));
-			g.drawString("Shield: " + shield.getRemainingTime() + "s", SCREEN_WIDTH - 150, 40);
-		}
+		world.getCoinManager().draw(g, snapshot);
+		world.getDino().draw(g, snapshot);
+		world.getScore().draw(g, snapshot);
 
-		// Time till next shield
-		long timeUntilNextShield = Math.max(0, SHIELD_SPAWN_INTERVAL - (System.currentTimeMillis() - lastShieldSpawnTime));
-		g.setColor(new Color(60, 179, 113));
-		g.setFont(new Font("Arial", Font.BOLD, 12));
-		g.drawString("Next Shield: " + (timeUntilNextShield / 1000) + "s", SCREEN_WIDTH - 150, 60);
+		hud.drawShieldTimers(g, snapshot);
 
 		if (showHitboxes)
-			drawDebugMenu(g);
-		g.setColor(Color.BLACK);
-		g.drawString("Coins: " + coinManager.getCoinCount(), 50, 50);
+			drawDebugMenu(g, snapshot);
+		hud.drawCoins(g, snapshot);
 	}
 
 	// Game over rendering
-	private void gameOverScreen(Graphics g) {
-		inProgressScreen(g);
-		BufferedImage gameOverImage = getImage("resources/game-over.png");
-		BufferedImage replayImage = getImage("resources/replay.png");
-		g.drawImage(gameOverImage, SCREEN_WIDTH / 2 - gameOverImage.getWidth() / 2,
-				SCREEN_HEIGHT / 2 - gameOverImage.getHeight() * 2, null);
-		g.drawImage(replayImage, SCREEN_WIDTH / 2 - replayImage.getWidth() / 2, SCREEN_HEIGHT / 2, null);
+	private void gameOverScreen(Graphics g, RenderSnapshot snapshot) {
+		inProgressScreen(g, snapshot);
+		gameOverImage.draw(g, SCREEN_WIDTH / 2 - gameOverImage.getWidth() / 2,
+				SCREEN_HEIGHT / 2 - gameOverImage.getHeight() * 2);
+		replayImage.draw(g, SCREEN_WIDTH / 2 - replayImage.getWidth() / 2, SCREEN_HEIGHT / 2);
 	}
 
 	// Paused screen rendering
-	private void pausedScreen(Graphics g) {
-		inProgressScreen(g);
-		BufferedImage pausedImage = getImage("resources/paused.png");
-		g.drawImage(pausedImage, SCREEN_WIDTH / 2 - pausedImage.getWidth() / 2, SCREEN_HEIGHT / 2 - pausedImage.getHeight(),
-				null);
-	}
-
-	// Input action: jump
-	public void pressUpAction() {
-		if (gameState == GameState.GAME_STATE_IN_PROGRESS) {
-			dino.jump();
-			dino.setDinoState(DinoState.DINO_JUMP);
-		}
-	}
-
-	// Input action: start game or restart
-	public void releaseUpAction() {
-		if (gameState == GameState.GAME_STATE_START)
-			gameState = GameState.GAME_STATE_INTRO;
-		if (gameState == GameState.GAME_STATE_OVER) {
-			speedX = STARTING_SPEED_X;
-			score.scoreReset();
-			eManager.clearEnemy();
-			dino.resetDino();
-			clouds.clearClouds();
-			land.resetLand();
-			coinManager.resetCoins();
-			resetGame();
-			gameState = GameState.GAME_STATE_IN_PROGRESS;
-		}
-	}
-
-	// Input action: duck
-	public void pressDownAction() {
-		if (dino.getDinoState() != DinoState.DINO_JUMP && gameState == GameState.GAME_STATE_IN_PROGRESS)
-			dino.setDinoState(DinoState.DINO_DOWN_RUN);
+	private void pausedScreen(Graphics g, RenderSnapshot snapshot) {
+		inProgressScreen(g, snapshot);
+		pausedImage.draw(g, SCREEN_WIDTH / 2 - pausedImage.getWidth() / 2, SCREEN_HEIGHT / 2 - pausedImage.getHeight());
 	}
 
-	// Input action: stand up from duck
-	public void releaseDownAction() {
-		if (dino.getDinoState() != DinoState.DINO_JUMP && gameState == GameState.GAME_STATE_IN_PROGRESS)
-			dino.setDinoState(DinoState.DINO_RUN);
+	// Input from keys, world takes it at start of next tick
+	// ignored while replay plays, keys would make it differ from what was recorded
+	public void input(InputEvent event) {
+		if (replay == null)
+			world.queueInput(event);
 	}
 
 	// Input action: toggle debug info
@@ -475,47 +609,4 @@ public class GameScreen extends JPanel implements Runnable {
 		else
 			collisions = true;
 	}
-
-	// Input action: pause/resume game
-	public void pressPauseAction() {
-		if (gameState == GameState.GAME_STATE_IN_PROGRESS)
-			gameState = GameState.GAME_STATE_PAUSED;
-		else
-			gameState = GameState.GAME_STATE_IN_PROGRESS;
-	}
-
-	// Create a new shield pickup
-	private void spawnShieldPowerUp() {
-		if (gameState == GameState.GAME_STATE_IN_PROGRESS) {
-			int xPosition = SCREEN_WIDTH + 50;
-			int shieldHeight = 40;
-			int yPosition = GROUND_Y - shieldHeight;
-			shieldPowerUps.add(new Block(xPosition, yPosition, 40, shieldHeight, shieldImg));
-		}
-	}
-
-	private void updateTime() {
-		currentTime += System.currentTimeMillis() - lastFrameTime; // Update current time
-		if (isDay && currentTime >= dayDuration) {
-			isDay = false; // Switch to night
-			currentTime = 0; // Reset current time
-			System.out.println("Switched to Night");
-		} else if (!isDay && currentTime >= nightDuration) {
-			isDay = true; // Switch to day
-			currentTime = 0; // Reset current time
-			System.out.println("Switched to Day");
-		}
-
-	}
-
-	// Reset shield and shake state
-	public void resetGame() {
-
-		shield.deactivate();
-		shield.reset();
-		shieldPowerUps.clear();
-		lastShieldSpawnTime = System.currentTimeMillis();
-
-		// shakeDuration = 0;
-	}
 }
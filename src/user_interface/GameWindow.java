@@ -2,8 +2,26 @@
 // java -cp compiled user_interface.GameWindow
 package user_interface;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.ParseException;
 import javax.swing.JFrame;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import manager.Leaderboard;
+import manager.LeaderboardServer;
+import manager.MetricsServer;
+import manager.Replay;
+import manager.ReplayPlayer;
+import manager.WorldManager;
+
 @SuppressWarnings(value = { "serial" })
 public class GameWindow extends JFrame {
 
@@ -20,16 +38,126 @@ public class GameWindow extends JFrame {
 		setUndecorated(true);
 		setLocationRelativeTo(null);
 
-		gameScreen = new GameScreen();
+		// -Ddino.activeRendering=true draws from game loop through BufferStrategy instead of repaint()
+		gameScreen = new GameScreen(Boolean.getBoolean("dino.activeRendering"));
+		// -Ddino.tickRate=60 -Ddino.fps=144 to tune simulation and rendering separately
+		gameScreen.getWorld().setTickRate(Integer.getInteger("dino.tickRate", WorldManager.BASE_TICK_RATE));
+		gameScreen.setRenderRate(Integer.getInteger("dino.fps", 100));
+		// -Ddino.seed=123 plays same obstacles, coins and clouds every time
+		Long seed = Long.getLong("dino.seed");
+		if (seed != null)
+			gameScreen.getWorld().setSeed(seed);
+		System.out.println("Seed: " + gameScreen.getWorld().getSeed());
+		// -Ddino.latency=true measures key press to frame, shown with debug overlay (backtick)
+		if (Boolean.getBoolean("dino.latency"))
+			gameScreen.measureLatency();
 		add(gameScreen);
 	}
 
+	// replay is saved when game is closed
+	private void recordTo(File file) {
+		gameScreen.getWorld().startRecording();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				Replay replay = gameScreen.getWorld().stopRecording();
+				replay.save(file);
+				System.out.println("Replay saved to " + file + ", " + replay.getEventCount() + " inputs");
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}));
+	}
+
+	// game events next to GC, safepoints and file I/O of bundled profile, written when game is closed
+	// same as -XX:StartFlightRecording:settings=resources/dino.jfc,filename=<file>
+	private static void startFlightRecording(String file) {
+		try (InputStream in = openResource("resources/dino.jfc")) {
+			Configuration configuration = Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+			Recording recording = new Recording(configuration);
+			recording.setName("Dino");
+			recording.setDestination(Paths.get(file));
+			recording.setDumpOnExit(true);
+			recording.start();
+			System.out.println("Flight recording to " + file);
+		} catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static InputStream openResource(String path) throws IOException {
+		File file = new File(path);
+		// same as Resource, from jar when file is not next to it
+		if (file.exists())
+			return new FileInputStream(file);
+		InputStream in = ClassLoader.getSystemClassLoader().getResourceAsStream(path.substring(path.indexOf("/") + 1));
+		if (in == null)
+			throw new IOException("Missing " + path);
+		return in;
+	}
+
+	private void startLeaderboard(int port) {
+		Leaderboard leaderboard = new Leaderboard();
+		gameScreen.getWorld().getScore().setLeaderboard(leaderboard);
+		try {
+			LeaderboardServer server = new LeaderboardServer(leaderboard);
+			server.start(port, 4);
+			System.out.println("Leaderboard on http://localhost:" + server.getPort() + "/top");
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 	private void startGame() {
 		gameScreen.startGame();
+		// after startGame so nothing changes world between keyframe and first tick
+		// -Ddino.replay=run.dr plays recorded run, -Ddino.record=run.dr records this one
+		String replayFile = System.getProperty("dino.replay");
+		// game paused when window was closed continues, -Ddino.snapshot= turns it off
+		String snapshotFile = System.getProperty("dino.snapshot", "resources/snapshot.bin");
+		if (!snapshotFile.isEmpty() && replayFile == null) {
+			gameScreen.getWorld().setSnapshotFile(new File(snapshotFile));
+			int tickRate = gameScreen.getWorld().getTickRate();
+			if (gameScreen.getWorld().restoreSnapshot()) {
+				System.out.println("Continuing paused game from " + snapshotFile);
+				// state only makes sense at rate it was saved with, so it wins over -Ddino.tickRate
+				if (gameScreen.getWorld().getTickRate() != tickRate)
+					System.out.println("Paused game was saved at " + gameScreen.getWorld().getTickRate()
+							+ " ticks/s, running at that instead of " + tickRate);
+			}
+		}
+		if (replayFile != null) {
+			try {
+				gameScreen.setReplay(new ReplayPlayer(gameScreen.getWorld(), Replay.load(new File(replayFile))));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		String recordFile = System.getProperty("dino.record");
+		if (recordFile != null)
+			recordTo(new File(recordFile));
+		// -Ddino.leaderboard=8090 serves leaderboard on localhost for other games on this machine
+		Integer leaderboardPort = Integer.getInteger("dino.leaderboard");
+		if (leaderboardPort != null)
+			startLeaderboard(leaderboardPort);
+		// -Ddino.metrics=9400 serves http://localhost:9400/metrics for scraping
+		Integer metricsPort = Integer.getInteger("dino.metrics");
+		if (metricsPort != null) {
+			try {
+				MetricsServer metrics = new MetricsServer(gameScreen.getWorld());
+				metrics.start(metricsPort);
+				System.out.println("Metrics on http://localhost:" + metrics.getPort() + "/metrics");
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
 		gameScreen.startThread();
 	}
 
 	public static void main(String[] args) {
+		// -Ddino.jfr=hitch.jfr, started first so loading is in recording too
+		String jfrFile = System.getProperty("dino.jfr");
+		if (jfrFile != null)
+			startFlightRecording(jfrFile);
 		GameWindow gameWindow = new GameWindow();
 		gameWindow.startGame();
 		gameWindow.setVisible(true);
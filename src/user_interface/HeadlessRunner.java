@@ -0,0 +1,133 @@
+// javac -d compiled -sourcepath src src/user_interface/HeadlessRunner.java
+// java -cp compiled user_interface.HeadlessRunner [games] [maxTicksPerGame] [tickRate] [seed]
+// java -cp compiled user_interface.HeadlessRunner replay <file> [seekTick]
+package user_interface;
+
+import java.io.File;
+import java.io.IOException;
+
+import manager.Replay;
+import manager.ReplayPlayer;
+import manager.WorldManager;
+import misc.GameState;
+import misc.InputEvent;
+import misc.InputState;
+
+// steps the world with no window, no repaint and no sleeping
+// meant for balancing runs and for driving the simulation from tests
+public class HeadlessRunner {
+
+	private static final int DEFAULT_GAMES = 100;
+	private static final long DEFAULT_MAX_TICKS = 100_000;
+	// fixed so two builds run exactly same games and ticks/s can be compared
+	private static final long DEFAULT_SEED = 1;
+
+	private WorldManager world;
+	private InputState input;
+
+	private long ticks = 0;
+	private long elapsedNanos = 0;
+	private int gamesPlayed = 0;
+	private long scoreSum = 0;
+
+	public HeadlessRunner() {
+		this(DEFAULT_SEED);
+	}
+
+	public HeadlessRunner(long seed) {
+		input = new InputState();
+		world = new WorldManager(input, true);
+		world.setSeed(seed);
+		world.startGame();
+	}
+
+	public WorldManager getWorld() {
+		return world;
+	}
+
+	public InputState getInput() {
+		return input;
+	}
+
+	// steps exactly given number of ticks, input stays whatever caller set
+	public void step(long count) {
+		long start = System.nanoTime();
+		for (long i = 0; i < count; i++)
+			world.update();
+		ticks += count;
+		elapsedNanos += System.nanoTime() - start;
+	}
+
+	// plays one game from start (or restart) until dino dies or maxTicks run out
+	// returns score of that game
+	public int playGame(long maxTicks) {
+		long start = System.nanoTime();
+		// same as releasing jump key on start and game over screen
+		if (world.getGameState() == GameState.GAME_STATE_START || world.getGameState() == GameState.GAME_STATE_OVER)
+			world.applyInput(InputEvent.RELEASE_UP);
+		long played = 0;
+		while (played < maxTicks && world.getGameState() != GameState.GAME_STATE_OVER) {
+			world.update();
+			played++;
+		}
+		int result = world.getScore().getScore();
+		ticks += played;
+		elapsedNanos += System.nanoTime() - start;
+		gamesPlayed++;
+		scoreSum += result;
+		return result;
+	}
+
+	public long getTicks() {
+		return ticks;
+	}
+
+	public int getGamesPlayed() {
+		return gamesPlayed;
+	}
+
+	public double getAverageScore() {
+		return gamesPlayed == 0 ? 0 : (double) scoreSum / gamesPlayed;
+	}
+
+	public double getTicksPerSecond() {
+		return elapsedNanos == 0 ? 0 : ticks * 1_000_000_000D / elapsedNanos;
+	}
+
+	// plays recorded run at full speed, from seekTick if given
+	public static void replay(File file, long seekTick) throws IOException {
+		Replay replay = Replay.load(file);
+		HeadlessRunner runner = new HeadlessRunner(replay.getSeed());
+		WorldManager world = runner.getWorld();
+		long start = System.nanoTime();
+		ReplayPlayer player = new ReplayPlayer(world, replay);
+		if (seekTick > 0)
+			player.seek(seekTick);
+		long seeked = world.getTick();
+		while (!player.isFinished())
+			player.step();
+		double seconds = (System.nanoTime() - start) / 1_000_000_000D;
+		System.out.printf("replay seed=%d events=%d keyframes=%d log=%dB start=%d end=%d ticks/s=%.0f state=%s score=%d%n",
+				replay.getSeed(), replay.getEventCount(), replay.getKeyframes().size(), replay.getLogLength(), seeked,
+				world.getTick(), world.getTick() / seconds, world.getGameState(), world.getScore().getScore());
+	}
+
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		if (args.length > 1 && args[0].equals("replay")) {
+			replay(new File(args[1]), args.length > 2 ? Long.parseLong(args[2]) : 0);
+			return;
+		}
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+		long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_MAX_TICKS;
+
+		HeadlessRunner runner = new HeadlessRunner(args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED);
+		if (args.length > 2)
+			runner.getWorld().setTickRate(Integer.parseInt(args[2]));
+		for (int i = 0; i < games; i++)
+			runner.playGame(maxTicks);
+		System.out.printf("seed=%d games=%d ticks=%d ticks/s=%.0f avg score=%.1f%n", runner.getWorld().getSeed(),
+				runner.getGamesPlayed(), runner.getTicks(), runner.getTicksPerSecond(), runner.getAverageScore());
+	}
+
+}
@@ -0,0 +1,89 @@
+package user_interface;
+
+import static user_interface.GameWindow.SCREEN_WIDTH;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import manager.RenderSnapshot;
+
+// shield and coin labels, fonts and colors are made once and every label is kept as small image
+// that is drawn again only when number in it changes, so normal frame makes no garbage
+public class HudRenderer {
+
+	private static final Font SHIELD_FONT = new Font("Arial", Font.BOLD, 14);
+	private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 12);
+	private static final Color SHIELD_COLOR = new Color(0, 150, 255);
+	private static final Color NEXT_SHIELD_COLOR = new Color(60, 179, 113);
+
+	private HudLabel shieldLabel = new HudLabel("Shield: ", "s", SHIELD_FONT, SHIELD_COLOR);
+	private HudLabel nextShieldLabel = new HudLabel("Next Shield: ", "s", LABEL_FONT, NEXT_SHIELD_COLOR);
+	private HudLabel coinsLabel = new HudLabel("Coins: ", "", LABEL_FONT, Color.BLACK);
+
+	public void drawShieldTimers(Graphics g, RenderSnapshot snapshot) {
+		// Shield timer
+		if (snapshot.isShieldActive())
+			shieldLabel.draw(g, snapshot.getShieldRemaining(), SCREEN_WIDTH - 150, 40);
+		// Time till next shield
+		nextShieldLabel.draw(g, (int) (snapshot.getTimeUntilNextShield() / 1000), SCREEN_WIDTH - 150, 60);
+	}
+
+	public void drawCoins(Graphics g, RenderSnapshot snapshot) {
+		coinsLabel.draw(g, snapshot.getCoinCount(), 50, 50);
+	}
+
+	private static class HudLabel {
+
+		private String prefix;
+		private String suffix;
+		private Font font;
+		private Color color;
+		private FontMetrics metrics;
+
+		private BufferedImage image;
+		private int value;
+		private boolean rendered = false;
+
+		private HudLabel(String prefix, String suffix, Font font, Color color) {
+			this.prefix = prefix;
+			this.suffix = suffix;
+			this.font = font;
+			this.color = color;
+		}
+
+		// x, y is text baseline same as in drawString
+		private void draw(Graphics g, int value, int x, int y) {
+			if (!rendered || value != this.value)
+				render(g, value);
+			g.drawImage(image, x, y - metrics.getAscent(), null);
+		}
+
+		private void render(Graphics target, int value) {
+			if (metrics == null)
+				metrics = target.getFontMetrics(font);
+			String text = prefix + value + suffix;
+			int width = metrics.stringWidth(text) + 1;
+			int height = metrics.getHeight();
+			// image only grows, narrower number just leaves transparent space
+			if (image == null || image.getWidth() < width)
+				image = new BufferedImage(width + metrics.charWidth('0') * 2, height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = image.createGraphics();
+			g.setComposite(AlphaComposite.Clear);
+			g.fillRect(0, 0, image.getWidth(), image.getHeight());
+			g.setComposite(AlphaComposite.SrcOver);
+			g.setFont(font);
+			g.setColor(color);
+			g.drawString(text, 0, metrics.getAscent());
+			g.dispose();
+			this.value = value;
+			rendered = true;
+		}
+
+	}
+
+}
@@ -0,0 +1,70 @@
+package util;
+
+import static util.Resource.getImage;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+
+// sprite regions described in resources/atlas.txt, every page image is decoded only once
+public class Atlas {
+
+	private static final String MANIFEST = "resources/atlas.txt";
+
+	private static Map<String, AtlasRegion> regions;
+	private static Map<String, BufferedImage> pages;
+
+	public static synchronized AtlasRegion getRegion(String name) {
+		if (regions == null)
+			load(MANIFEST);
+		AtlasRegion region = regions.get(name);
+		if (region == null)
+			throw new IllegalArgumentException("No atlas region " + name + " in " + MANIFEST);
+		return region;
+	}
+
+	public static synchronized int getPageCount() {
+		if (regions == null)
+			load(MANIFEST);
+		return pages.size();
+	}
+
+	private static void load(String path) {
+		regions = new HashMap<String, AtlasRegion>();
+		pages = new HashMap<String, BufferedImage>();
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(open(path)))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+				// name image x y width height
+				String[] parts = line.split("\\s+");
+				BufferedImage page = pages.get(parts[1]);
+				if (page == null) {
+					page = getImage(parts[1]);
+					pages.put(parts[1], page);
+				}
+				regions.put(parts[0], new AtlasRegion(parts[0], page, Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+						Integer.parseInt(parts[4]), Integer.parseInt(parts[5])));
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	// same file or jar lookup as Resource.getImage
+	private static InputStream open(String path) throws IOException {
+		File file = new File(path);
+		if (file.exists())
+			return new FileInputStream(file);
+		return ClassLoader.getSystemClassLoader().getResourceAsStream(path.substring(path.indexOf("/") + 1));
+	}
+
+}
@@ -0,0 +1,65 @@
+package util;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+// named rectangle on one atlas page, draws straight from the page image
+public class AtlasRegion {
+
+	private String name;
+	private BufferedImage page;
+	private BufferedImage image;
+	private int x;
+	private int y;
+	private int width;
+	private int height;
+
+	AtlasRegion(String name, BufferedImage page, int x, int y, int width, int height) {
+		this.name = name;
+		this.page = page;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		// getSubimage shares pixels with the page, nothing is copied
+		image = page.getSubimage(x, y, width, height);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public BufferedImage getPage() {
+		return page;
+	}
+
+	// for code that needs BufferedImage (Animation), view into the page
+	public BufferedImage getImage() {
+		return image;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public void draw(Graphics g, int dx, int dy) {
+		g.drawImage(page, dx, dy, dx + width, dy + height, x, y, x + width, y + height, null);
+	}
+
+	public void draw(Graphics g, int dx, int dy, int dWidth, int dHeight) {
+		g.drawImage(page, dx, dy, dx + dWidth, dy + dHeight, x, y, x + width, y + height, null);
+	}
+
+}
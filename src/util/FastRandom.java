@@ -0,0 +1,49 @@
+package util;
+
+// SplitMix64, one long of state and no locking like java.util.Random has
+// only for one thread, every stream of RandomManager has its own
+public class FastRandom {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long state;
+
+	public FastRandom(long seed) {
+		state = seed;
+	}
+
+	public void setSeed(long seed) {
+		state = seed;
+	}
+
+	// whole state, setState(getState()) continues with same numbers
+	public long getState() {
+		return state;
+	}
+
+	public void setState(long state) {
+		this.state = state;
+	}
+
+	public long nextLong() {
+		return mix(state += GOLDEN_GAMMA);
+	}
+
+	// 0 inclusive to 1 exclusive, drop-in for Math.random()
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	// 0 inclusive to bound exclusive, bound must be positive
+	public int nextInt(int bound) {
+		return (int) (((nextLong() >>> 32) * bound) >>> 32);
+	}
+
+	// spreads bits of any long, also used to make unrelated seeds from one seed
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
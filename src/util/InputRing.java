@@ -0,0 +1,79 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// bounded queue of int events with nanoTime stamps, for exactly one producer thread and one consumer thread
+// each side writes only its own index and publishes it with lazySet, no locks, no CAS, nothing allocated
+public class InputRing {
+
+	private final int[] events;
+	private final long[] stamps;
+	private final int mask;
+
+	// next slot to read, written only by consumer
+	private final AtomicLong head = new AtomicLong();
+	// next slot to write, written only by producer
+	private final AtomicLong tail = new AtomicLong();
+	// producer's last look at head, so full check does not read consumer's index every time
+	private long cachedHead = 0;
+	private volatile long dropped = 0;
+	// stamp of event last returned by poll(), consumer only
+	private long lastStamp = 0;
+
+	// capacity is rounded up to power of two
+	public InputRing(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		events = new int[size];
+		stamps = new long[size];
+		mask = size - 1;
+	}
+
+	// producer only, false if ring is full and event was dropped
+	public boolean offer(int event, long stamp) {
+		long t = tail.get();
+		if (t - cachedHead > mask) {
+			cachedHead = head.get();
+			if (t - cachedHead > mask) {
+				dropped++;
+				return false;
+			}
+		}
+		events[(int) t & mask] = event;
+		stamps[(int) t & mask] = stamp;
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	// consumer only, next event or -1 when empty, its stamp is getLastStamp()
+	public int poll() {
+		long h = head.get();
+		if (h == tail.get())
+			return -1;
+		int event = events[(int) h & mask];
+		lastStamp = stamps[(int) h & mask];
+		head.lazySet(h + 1);
+		return event;
+	}
+
+	public long getLastStamp() {
+		return lastStamp;
+	}
+
+	// consumer only, forgets everything queued so far
+	public void clear() {
+		head.lazySet(tail.get());
+	}
+
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	public int getCapacity() {
+		return events.length;
+	}
+
+	public long getDropped() {
+		return dropped;
+	}
+
+}
@@ -0,0 +1,83 @@
+package util;
+
+// durations in nanoseconds counted into fixed buckets, memory does not grow with samples
+// every power of two is split into 16 buckets, so any reported value is within ~6% of real one
+// one thread records, others may read and see numbers a sample or two behind
+public class LatencyHistogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	// enough for any positive long
+	private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+	private long[] counts = new long[BUCKETS];
+	private long count = 0;
+	private long sum = 0;
+	private long max = 0;
+
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+		counts[index(nanos)]++;
+		count++;
+		sum += nanos;
+		if (nanos > max)
+			max = nanos;
+	}
+
+	private static int index(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	// highest value that falls into bucket
+	private static long highestIn(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		int shift = index / SUB_BUCKETS - 1;
+		long sub = index % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+	}
+
+	// value below which given percent of samples are, 0 when empty
+	public long getPercentile(double percent) {
+		long count = this.count;
+		if (count == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(highestIn(i), max);
+		}
+		return max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] = 0;
+		count = 0;
+		sum = 0;
+		max = 0;
+	}
+
+}
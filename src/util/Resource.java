@@ -1,17 +1,85 @@
 package util;
 
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
 import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 
 public class Resource {
-	
-	public static BufferedImage getImage(String path) {
+
+	// bigger images stay as decoded, converting 4725x4725 coin would be ~90MB of ints
+	// they are only drawn scaled down anyway
+	private static final long MAX_COMPATIBLE_PIXELS = 2048 * 2048;
+
+	// every image is decoded once and then shared, keyed by path
+	private static final Map<String, BufferedImage> images = new HashMap<String, BufferedImage>();
+	private static long imageHits = 0;
+	private static long imageMisses = 0;
+	private static long imageBytes = 0;
+
+	public static synchronized BufferedImage getImage(String path) {
+		BufferedImage image = images.get(path);
+		if(image != null) {
+			imageHits++;
+			return image;
+		}
+		imageMisses++;
+		image = toCompatibleImage(readImage(path));
+		if(image != null) {
+			images.put(path, image);
+			imageBytes += sizeOf(image);
+		}
+		return image;
+	}
+
+	// load images before game loop starts so first frames dont decode anything
+	public static void preloadImages(String... paths) {
+		for(String path : paths)
+			getImage(path);
+	}
+
+	// returns true if image was cached, whoever still holds it keeps working
+	public static synchronized boolean evictImage(String path) {
+		BufferedImage image = images.remove(path);
+		if(image == null)
+			return false;
+		imageBytes -= sizeOf(image);
+		return true;
+	}
+
+	public static synchronized void evictAllImages() {
+		images.clear();
+		imageBytes = 0;
+	}
+
+	public static synchronized long getImageHits() {
+		return imageHits;
+	}
+
+	public static synchronized long getImageMisses() {
+		return imageMisses;
+	}
+
+	public static synchronized long getImageBytes() {
+		return imageBytes;
+	}
+
+	public static synchronized int getCachedImageCount() {
+		return images.size();
+	}
+
+	private static BufferedImage readImage(String path) {
 		File file = new File(path);
 		BufferedImage image = null;
 		try {
@@ -27,28 +95,70 @@ public class Resource {
 		}
 		return image;
 	}
-	
-	public static Clip getSound(String path) {
+
+	// same pixels in format of the screen, so drawing can be accelerated and is not converted every blit
+	private static BufferedImage toCompatibleImage(BufferedImage image) {
+		if(image == null || GraphicsEnvironment.isHeadless()
+				|| (long) image.getWidth() * image.getHeight() > MAX_COMPATIBLE_PIXELS)
+			return image;
+		GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration();
+		if(image.getColorModel().equals(gc.getColorModel(image.getTransparency())))
+			return image;
+		BufferedImage compatible = createCompatibleImage(image.getWidth(), image.getHeight(),
+				image.getTransparency() == Transparency.OPAQUE);
+		Graphics2D g = compatible.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return compatible;
+	}
+
+	// empty image in screen format, plain ARGB when there is no screen
+	static BufferedImage createCompatibleImage(int width, int height, boolean opaque) {
+		if(GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, opaque ? Transparency.OPAQUE : Transparency.TRANSLUCENT);
+	}
+
+	static long sizeOf(BufferedImage image) {
+		return (long) image.getWidth() * image.getHeight() * image.getColorModel().getPixelSize() / 8;
+	}
+
+	// whole sound decoded to 16 bit signed samples in given format, channels interleaved
+	public static short[] getSamples(String path, AudioFormat format) {
 		File file = new File(path);
-		Clip clip = null;
 		try {
-			clip = AudioSystem.getClip();
+			AudioInputStream stream;
 			// same situation why i have ClassLoader here
 			if(file.exists())
-				clip.open(AudioSystem.getAudioInputStream(file));
+				stream = AudioSystem.getAudioInputStream(file);
 			else {
 				path = path.substring(path.indexOf("/") + 1);
-				clip.open(AudioSystem.getAudioInputStream(ClassLoader.getSystemClassLoader().getResource(path)));
+				stream = AudioSystem.getAudioInputStream(ClassLoader.getSystemClassLoader().getResource(path));
+			}
+			if(!stream.getFormat().matches(format))
+				stream = AudioSystem.getAudioInputStream(format, stream);
+			try(AudioInputStream in = stream) {
+				byte[] bytes = in.readAllBytes();
+				short[] samples = new short[bytes.length / 2];
+				ByteBuffer.wrap(bytes).order(format.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN)
+						.asShortBuffer().get(samples);
+				return samples;
 			}
 	    } catch (Exception e) {
 	    	e.printStackTrace();
 	    }
-		return clip;
+		return null;
 	}
-	
-	public static boolean isJar() {
-		Matcher m = Pattern.compile("^file:").matcher(ClassLoader.getSystemClassLoader().getResource("").toString());
-		return !m.find();
+
+	// where classes come from does not change while running, so asked once
+	private static Boolean jar;
+
+	public static synchronized boolean isJar() {
+		if (jar == null)
+			jar = !ClassLoader.getSystemClassLoader().getResource("").toString().startsWith("file:");
+		return jar;
 	}
-	
+
 }
@@ -0,0 +1,91 @@
+package util;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+// atlas regions rendered once at the size they are drawn, so every frame is a plain 1:1 blit
+// instead of Java2D scaling the source again
+public class ScaledImageCache {
+
+	// pixel art that is only made bigger keeps hard edges
+	public static final Object PIXELATED = RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+	// huge source images (coin, sun, moon) scaled down a lot
+	public static final Object SMOOTH = RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+
+	private static final Map<String, BufferedImage> scaled = new HashMap<String, BufferedImage>();
+	private static long hits = 0;
+	private static long misses = 0;
+	private static long bytes = 0;
+
+	public static synchronized BufferedImage getScaled(AtlasRegion region, int width, int height, Object hint) {
+		// size is part of the key, new scale factor simply makes new variant
+		String key = region.getName() + "@" + width + "x" + height + "/" + hint;
+		BufferedImage image = scaled.get(key);
+		if (image != null) {
+			hits++;
+			return image;
+		}
+		misses++;
+		image = scale(region.getImage(), width, height, hint);
+		scaled.put(key, image);
+		bytes += Resource.sizeOf(image);
+		return image;
+	}
+
+	public static void draw(Graphics g, AtlasRegion region, int x, int y, int width, int height, Object hint) {
+		g.drawImage(getScaled(region, width, height, hint), x, y, null);
+	}
+
+	// drop every variant of region, call when its scale factor changes so old sizes dont stay around
+	public static synchronized void invalidate(AtlasRegion region) {
+		String prefix = region.getName() + "@";
+		scaled.entrySet().removeIf(e -> {
+			if (!e.getKey().startsWith(prefix))
+				return false;
+			bytes -= Resource.sizeOf(e.getValue());
+			return true;
+		});
+	}
+
+	public static synchronized void invalidateAll() {
+		scaled.clear();
+		bytes = 0;
+	}
+
+	public static synchronized long getHits() {
+		return hits;
+	}
+
+	public static synchronized long getMisses() {
+		return misses;
+	}
+
+	public static synchronized long getBytes() {
+		return bytes;
+	}
+
+	private static BufferedImage scale(BufferedImage source, int width, int height, Object hint) {
+		BufferedImage current = source;
+		// one bilinear step from 4725 to 30 pixels would skip most of the source,
+		// so halve first until we are close to target size
+		if (hint != PIXELATED) {
+			while (current.getWidth() / 2 >= width * 2 && current.getHeight() / 2 >= height * 2)
+				current = render(current, current.getWidth() / 2, current.getHeight() / 2, hint);
+		}
+		return render(current, width, height, hint);
+	}
+
+	private static BufferedImage render(BufferedImage source, int width, int height, Object hint) {
+		BufferedImage image = Resource.createCompatibleImage(width, height, false);
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, hint);
+		g.drawImage(source, 0, 0, width, height, null);
+		g.dispose();
+		return image;
+	}
+
+}
@@ -0,0 +1,307 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// scores in binary file: fixed size header with best score and top table, then every game as fixed size record
+// startup reads only the header, so history can grow forever without making start slower
+public class ScoreStore {
+
+	private static final int MAGIC = 0x44494E48; // "DINH"
+	private static final short VERSION = 2;
+	public static final int TOP_SIZE = 10;
+	private static final int NAME_BYTES = 16;
+	// score, time in millis, player name padded with zeros
+	public static final int RECORD_SIZE = 4 + 8 + NAME_BYTES;
+	// magic, version, record count, best, top count, top table, rest is reserved
+	// last 8 bytes are crc of everything before them, header is rewritten in place so torn write must show
+	private static final int HEADER_SIZE = 512;
+	private static final int CRC_OFFSET = HEADER_SIZE - 8;
+	// old text format, only read when migrating
+	private static final Pattern TEXT_LINE = Pattern.compile("result=(\\d+),date=([\\d_]+),player=(\\w+)");
+
+	public static class Record {
+
+		private final int score;
+		private final long time;
+		private final String player;
+
+		public Record(int score, long time, String player) {
+			this.score = score;
+			this.time = time;
+			this.player = player;
+		}
+
+		public int getScore() {
+			return score;
+		}
+
+		public long getTime() {
+			return time;
+		}
+
+		public String getPlayer() {
+			return player;
+		}
+
+	}
+
+	private File file;
+	private long recordCount = 0;
+	private int best = 0;
+	// highest first
+	private int topCount = 0;
+	private int[] topScores = new int[TOP_SIZE];
+	private long[] topTimes = new long[TOP_SIZE];
+	private String[] topPlayers = new String[TOP_SIZE];
+
+	private ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+	private ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+	private CRC32 crc = new CRC32();
+
+	public ScoreStore(File file) {
+		this.file = file;
+	}
+
+	public boolean exists() {
+		return file.exists();
+	}
+
+	// reads header, new file gets empty header
+	public synchronized void open() throws IOException {
+		if (!file.exists()) {
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+				writeHeader(channel);
+			}
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			header.clear();
+			while (header.hasRemaining() && channel.read(header, header.position()) >= 0)
+				;
+			header.flip();
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC)
+				throw new IOException("Not a score file: " + file);
+			short version = header.getShort();
+			if (version != VERSION)
+				throw new IOException("Score file version " + version + " is not supported");
+			crc.reset();
+			crc.update(header.array(), 0, CRC_OFFSET);
+			if (crc.getValue() != header.getLong(CRC_OFFSET))
+				throw new IOException("Score file header is damaged: " + file);
+			// nothing is taken over until whole header is known to be sane
+			long count = header.getLong();
+			int best = header.getInt();
+			int top = header.getInt();
+			if (count < 0 || HEADER_SIZE + count * RECORD_SIZE > channel.size())
+				throw new IOException("Score file has " + count + " records but is only " + channel.size() + " bytes");
+			if (top < 0 || top > TOP_SIZE)
+				throw new IOException("Score file top table has " + top + " entries");
+			for (int i = 0; i < top; i++) {
+				topScores[i] = header.getInt();
+				topTimes[i] = header.getLong();
+				topPlayers[i] = readName(header);
+			}
+			recordCount = count;
+			this.best = best;
+			topCount = top;
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Score file header is cut off: " + file, e);
+		}
+	}
+
+	// appends record and rewrites header, two positioned writes no matter how long history is
+	public synchronized void add(int score, long time, String player) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			append(channel, score, time, player);
+			writeHeader(channel);
+		}
+	}
+
+	// appends records and writes header once, force is fsync after every record and after header
+	public synchronized void addAll(List<Record> records, boolean forceEach, boolean force) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			for (Record r : records) {
+				append(channel, r.score, r.time, r.player);
+				if (forceEach)
+					channel.force(false);
+			}
+			writeHeader(channel);
+			if (force || forceEach)
+				channel.force(false);
+		}
+	}
+
+	// builds score file from every game in old best-scores.txt, call it before open() when file does not exist
+	// written to temp file and moved in place at once, so half migrated file never stops next start from trying again
+	public synchronized int migrate(File textFile) throws IOException {
+		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
+		int migrated = 0;
+		File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+		try (BufferedReader reader = new BufferedReader(new FileReader(textFile));
+				FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				Matcher m = TEXT_LINE.matcher(line);
+				if (!m.find())
+					continue;
+				long time = 0;
+				try {
+					time = dateFormat.parse(m.group(2)).getTime();
+				} catch (ParseException e) {
+					// keep score even with broken date
+				}
+				append(channel, Integer.parseInt(m.group(1)), time, m.group(3));
+				migrated++;
+			}
+			writeHeader(channel);
+			channel.force(false);
+		} catch (IOException | RuntimeException e) {
+			temp.delete();
+			reset();
+			throw e;
+		}
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			temp.delete();
+			reset();
+			throw e;
+		}
+		return migrated;
+	}
+
+	private void reset() {
+		recordCount = 0;
+		best = 0;
+		topCount = 0;
+	}
+
+	// throws history away and keeps only records of top table
+	public synchronized void compact() throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(HEADER_SIZE);
+			recordCount = 0;
+			for (int i = 0; i < topCount; i++)
+				writeRecord(channel, topScores[i], topTimes[i], topPlayers[i]);
+			writeHeader(channel);
+		}
+	}
+
+	private void append(FileChannel channel, int score, long time, String player) throws IOException {
+		writeRecord(channel, score, time, player);
+		if (score > best)
+			best = score;
+		insertTop(score, time, player);
+	}
+
+	private void writeRecord(FileChannel channel, int score, long time, String player) throws IOException {
+		record.clear();
+		record.putInt(score);
+		record.putLong(time);
+		writeName(record, player);
+		record.flip();
+		long position = HEADER_SIZE + recordCount * RECORD_SIZE;
+		while (record.hasRemaining())
+			position += channel.write(record, position);
+		recordCount++;
+	}
+
+	private void insertTop(int score, long time, String player) {
+		int i = Math.min(topCount, TOP_SIZE - 1);
+		if (topCount == TOP_SIZE && score <= topScores[i])
+			return;
+		while (i > 0 && topScores[i - 1] < score) {
+			topScores[i] = topScores[i - 1];
+			topTimes[i] = topTimes[i - 1];
+			topPlayers[i] = topPlayers[i - 1];
+			i--;
+		}
+		topScores[i] = score;
+		topTimes[i] = time;
+		topPlayers[i] = player;
+		if (topCount < TOP_SIZE)
+			topCount++;
+	}
+
+	private void writeHeader(FileChannel channel) throws IOException {
+		header.clear();
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putLong(recordCount);
+		header.putInt(best);
+		header.putInt(topCount);
+		for (int i = 0; i < topCount; i++) {
+			header.putInt(topScores[i]);
+			header.putLong(topTimes[i]);
+			writeName(header, topPlayers[i]);
+		}
+		while (header.position() < CRC_OFFSET)
+			header.put((byte) 0);
+		crc.reset();
+		crc.update(header.array(), 0, CRC_OFFSET);
+		header.putLong(crc.getValue());
+		header.flip();
+		long position = 0;
+		while (header.hasRemaining())
+			position += channel.write(header, position);
+	}
+
+	// utf-8 cut to NAME_BYTES, rest filled with zeros
+	private static void writeName(ByteBuffer buffer, String name) {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		int length = Math.min(bytes.length, NAME_BYTES);
+		buffer.put(bytes, 0, length);
+		for (int i = length; i < NAME_BYTES; i++)
+			buffer.put((byte) 0);
+	}
+
+	private static String readName(ByteBuffer buffer) {
+		byte[] bytes = new byte[NAME_BYTES];
+		buffer.get(bytes);
+		int length = 0;
+		while (length < NAME_BYTES && bytes[length] != 0)
+			length++;
+		return new String(bytes, 0, length, StandardCharsets.UTF_8);
+	}
+
+	public synchronized int getBest() {
+		return best;
+	}
+
+	public synchronized long getRecordCount() {
+		return recordCount;
+	}
+
+	public synchronized int getTopCount() {
+		return topCount;
+	}
+
+	public synchronized int getTopScore(int i) {
+		return topScores[i];
+	}
+
+	public synchronized long getTopTime(int i) {
+		return topTimes[i];
+	}
+
+	public synchronized String getTopPlayer(int i) {
+		return topPlayers[i];
+	}
+
+}
@@ -0,0 +1,192 @@
+package util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import misc.ScoreWriteEvent;
+import misc.SyncPolicy;
+
+// writes scores to ScoreStore from own thread, so game over frame never waits for disk
+// submit() only copies score into preallocated ring, full ring drops it and counts it
+// one thread submits (game thread), writer thread takes, neither ever locks
+public class ScoreWriter implements Runnable {
+
+	// how long writer sleeps when nothing comes, submit wakes it sooner
+	private static final long IDLE_NANOS = 100_000_000L;
+
+	private ScoreStore store;
+	private int batchSize;
+	private SyncPolicy syncPolicy;
+
+	// taken slot, writer is copying it
+	private static final long TAKEN = -1;
+
+	// ring slots, filled by submit and cleared by writer thread
+	private int capacity;
+	private int[] scores;
+	private long[] times;
+	private String[] players;
+	// per slot: n means free for score n, n + 1 means score n is in it, TAKEN while writer copies it
+	// submit can take score back with one CAS when close comes in between, so score is written or dropped, never lost
+	private AtomicLongArray sequence;
+	// next score writer takes, only writer thread moves it
+	private AtomicLong head = new AtomicLong();
+	// next score submit puts in, only submitting thread moves it
+	private AtomicLong tail = new AtomicLong();
+
+	private volatile Thread thread;
+	private volatile boolean closing = false;
+
+	private AtomicLong submitted = new AtomicLong();
+	private AtomicLong written = new AtomicLong();
+	private AtomicLong failed = new AtomicLong();
+	private AtomicLong dropped = new AtomicLong();
+	private AtomicLong batches = new AtomicLong();
+
+	public ScoreWriter(ScoreStore store, int queueSize, int batchSize, SyncPolicy syncPolicy) {
+		this.store = store;
+		// with one slot published and free for next score would look the same
+		this.capacity = Math.max(2, queueSize);
+		this.sequence = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++)
+			sequence.set(i, i);
+		this.scores = new int[capacity];
+		this.times = new long[capacity];
+		this.players = new String[capacity];
+		this.batchSize = batchSize;
+		this.syncPolicy = syncPolicy;
+	}
+
+	// starts writer thread, call it once before first submit
+	public synchronized void start() {
+		if (thread != null)
+			return;
+		thread = new Thread(this, "Score writer");
+		thread.setDaemon(true);
+		thread.start();
+		// daemon thread would just die on exit, hook lets it finish what is queued
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> close(2000), "Score writer shutdown"));
+	}
+
+	// never blocks and allocates nothing, only from one thread
+	public boolean submit(int score, long time, String player) {
+		if (closing)
+			return false;
+		long t = tail.get();
+		int slot = (int) (t % capacity);
+		if (sequence.get(slot) != t) {
+			dropped.incrementAndGet();
+			return false;
+		}
+		scores[slot] = score;
+		times[slot] = time;
+		players[slot] = player;
+		// slot is written before writer can see it
+		sequence.set(slot, t + 1);
+		tail.set(t + 1);
+		// close came in between, writer may already be done, so take score back unless writer has it
+		if (closing && sequence.compareAndSet(slot, t + 1, t)) {
+			players[slot] = null;
+			tail.set(t);
+			dropped.incrementAndGet();
+			return false;
+		}
+		submitted.incrementAndGet();
+		LockSupport.unpark(thread);
+		return true;
+	}
+
+	@Override
+	public void run() {
+		List<ScoreStore.Record> batch = new ArrayList<ScoreStore.Record>(batchSize);
+		while (true) {
+			// read before taking, so submit that saw closing false is always taken by this pass
+			boolean closed = closing;
+			take(batch);
+			if (batch.isEmpty()) {
+				if (closed)
+					break;
+				LockSupport.parkNanos(this, IDLE_NANOS);
+				continue;
+			}
+			ScoreWriteEvent event = new ScoreWriteEvent();
+			event.begin();
+			try {
+				store.addAll(batch, syncPolicy == SyncPolicy.PER_RECORD, syncPolicy == SyncPolicy.PER_BATCH);
+				written.addAndGet(batch.size());
+			} catch (IOException e) {
+				e.printStackTrace();
+				failed.addAndGet(batch.size());
+				event.failed = true;
+			}
+			event.end();
+			if (event.shouldCommit()) {
+				event.records = batch.size();
+				event.syncPolicy = syncPolicy.name();
+				event.commit();
+			}
+			batches.incrementAndGet();
+			batch.clear();
+		}
+	}
+
+	// copies up to batchSize published scores and frees their slots
+	private void take(List<ScoreStore.Record> batch) {
+		long h = head.get();
+		while (batch.size() < batchSize) {
+			int slot = (int) (h % capacity);
+			if (!sequence.compareAndSet(slot, h + 1, TAKEN))
+				break;
+			batch.add(new ScoreStore.Record(scores[slot], times[slot], players[slot]));
+			players[slot] = null;
+			sequence.set(slot, h + capacity);
+			h++;
+		}
+		head.set(h);
+	}
+
+	// stops taking scores and waits until queued ones are written, true if everything got written in time
+	public boolean close(long timeoutMillis) {
+		closing = true;
+		Thread thread = this.thread;
+		if (thread == null)
+			return true;
+		LockSupport.unpark(thread);
+		try {
+			thread.join(timeoutMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return !thread.isAlive();
+	}
+
+	// scores waiting in ring
+	public int getQueued() {
+		return (int) (tail.get() - head.get());
+	}
+
+	public long getSubmitted() {
+		return submitted.get();
+	}
+
+	public long getWritten() {
+		return written.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	public long getBatches() {
+		return batches.get();
+	}
+
+}
@@ -0,0 +1,43 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// hands latest value from one writer thread to one reader thread, neither ever waits
+// writer fills back and publishes it, reader takes newest published one as front
+// third buffer sits between them, so writer always has one to fill while reader holds another
+public class TripleBuffer<T> {
+
+	// index of middle buffer in low bits, FRESH when writer published it after reader last took one
+	private static final int INDEX = 3;
+	private static final int FRESH = 4;
+
+	private final Object[] buffers;
+	private final AtomicInteger middle = new AtomicInteger(1);
+	private int back = 0; // only writer
+	private int front = 2; // only reader
+
+	public TripleBuffer(T first, T second, T third) {
+		buffers = new Object[] { first, second, third };
+	}
+
+	// buffer to fill, same one until publish()
+	@SuppressWarnings("unchecked")
+	public T getBack() {
+		return (T) buffers[back];
+	}
+
+	// back becomes newest for reader, writer gets whatever was in middle
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX;
+	}
+
+	// newest published buffer, or same as last time when nothing new was published
+	// it stays reader's until next getFront(), writer never touches it
+	@SuppressWarnings("unchecked")
+	public T getFront() {
+		if ((middle.get() & FRESH) != 0)
+			front = middle.getAndSet(front) & INDEX;
+		return (T) buffers[front];
+	}
+
+}